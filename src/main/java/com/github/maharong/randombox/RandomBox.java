@@ -1,28 +1,74 @@
 package com.github.maharong.randombox;
 
+import com.github.maharong.randombox.animation.AnimationEngine;
 import com.github.maharong.randombox.box.BoxManager;
+import com.github.maharong.randombox.box.BoxWatcher;
 import com.github.maharong.randombox.command.RandomBoxCommand;
 import com.github.maharong.randombox.listener.BoxUseListener;
+import com.github.maharong.randombox.mailbox.Mailbox;
+import com.github.maharong.randombox.pity.PityStore;
+import com.github.maharong.randombox.random.RollLog;
+import com.github.maharong.randombox.random.SeededRandomProvider;
+import com.github.maharong.randombox.reward.BroadcastAggregator;
+import com.github.maharong.randombox.reward.CommandDispatcher;
+import com.github.maharong.randombox.reward.DeliveryScheduler;
+import com.github.maharong.randombox.reward.PendingRewards;
+import com.github.maharong.randombox.reward.RewardSelector;
 import com.github.maharong.randombox.util.MessageUtil;
 import com.github.maharong.randombox.util.VaultUtil;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 public final class RandomBox extends JavaPlugin {
     private static RandomBox instance;
     private final BoxManager boxManager = new BoxManager();
+    private PityStore pityStore;
+    private CommandDispatcher commandDispatcher;
+    private BroadcastAggregator broadcastAggregator;
+    private DeliveryScheduler deliveryScheduler;
+    private PendingRewards pendingRewards;
+    private Mailbox mailbox;
+    private AnimationEngine animationEngine;
+    private BoxWatcher boxWatcher;
 
     public static RandomBox getInstance() { return instance; }
 
     @Override
     public void onEnable() {
         instance = this;
+        // 기본 설정 로딩
+        saveDefaultConfig();
         // Vault 체크
         VaultUtil.setup(this);
+        // 난수 공급자 설정
+        setupRandom();
+        // 브로드캐스트 묶음 전송
+        broadcastAggregator = new BroadcastAggregator(this, getConfig().getLong("broadcast.window-ticks", 1L),
+                getConfig().getInt("broadcast.max-names", 3));
+        // COMMAND 보상 실행 대기열
+        commandDispatcher = new CommandDispatcher(this, getConfig().getDouble("command.budget-ms", 2.0));
+        commandDispatcher.start();
+        // 접속하지 않은 플레이어의 보관 보상
+        pendingRewards = new PendingRewards(this);
+        pendingRewards.load();
+        // 보상 지급 스케줄러
+        deliveryScheduler = new DeliveryScheduler(this, getConfig().getBoolean("delivery.enabled", true),
+                getConfig().getDouble("delivery.budget-ms", 5.0));
+        deliveryScheduler.start();
+        // 보관함(우편함)
+        mailbox = new Mailbox(this, getConfig().getInt("mailbox.batch-size", 9));
+        mailbox.open(Math.max(20L, getConfig().getLong("mailbox.compact-interval", 10L) * 60L * 20L));
+        // 개봉 연출
+        animationEngine = new AnimationEngine(this, getConfig().getBoolean("animation.enabled", false),
+                getConfig().getInt("animation.steps", 30), getConfig().getInt("animation.slowdown", 6),
+                getConfig().getInt("animation.hold-ticks", 20));
+        // 천장 카운터 저장소
+        pityStore = new PityStore(this);
+        RewardSelector.setPityStore(pityStore);
         // 메시지 설정 로딩
         saveResource("message.yml", false);
         File messageFile = new File(getDataFolder(), "message.yml");
@@ -30,15 +76,53 @@ public final class RandomBox extends JavaPlugin {
         MessageUtil.load(messageConfig);
         // box.yml 로드
         loadBoxConfig();
+        // box.yml 변경 자동 감지 (선택)
+        if (getConfig().getBoolean("hot-reload.enabled", false)) {
+            boxWatcher = new BoxWatcher(this, boxManager, getConfig().getLong("hot-reload.debounce-ms", 500L));
+            boxWatcher.start();
+        }
         // 커맨드, 리스너 등록
         Objects.requireNonNull(getCommand("randombox")).setExecutor(new RandomBoxCommand(boxManager));
         getServer().getPluginManager().registerEvents(new BoxUseListener(this), this);
+        getServer().getPluginManager().registerEvents(pityStore, this);
+        getServer().getPluginManager().registerEvents(deliveryScheduler, this);
+        getServer().getPluginManager().registerEvents(pendingRewards, this);
+        getServer().getPluginManager().registerEvents(mailbox, this);
+        getServer().getPluginManager().registerEvents(animationEngine, this);
+        pityStore.start(Math.max(20L, getConfig().getLong("pity.flush-interval", 30L) * 20L));
         getLogger().info("플러그인이 활성화되었습니다.");
     }
 
     @Override
     public void onDisable() {
         // 비활성화
+        if (boxWatcher != null) {
+            boxWatcher.close();
+        }
+        if (animationEngine != null) {
+            animationEngine.shutdown();
+        }
+        if (deliveryScheduler != null) {
+            // 접속하지 않은 플레이어의 보상은 우편함과 보관 보상으로 넘어감
+            deliveryScheduler.shutdown();
+        }
+        if (pendingRewards != null) {
+            pendingRewards.save();
+        }
+        if (mailbox != null) {
+            mailbox.close();
+        }
+        if (broadcastAggregator != null) {
+            broadcastAggregator.shutdown();
+        }
+        if (commandDispatcher != null) {
+            commandDispatcher.shutdown();
+        }
+        VaultUtil.shutdown();
+        RewardSelector.getProvider().close();
+        if (pityStore != null) {
+            pityStore.close();
+        }
         getLogger().info("플러그인이 비활성화되었습니다.");
     }
 
@@ -46,14 +130,55 @@ public final class RandomBox extends JavaPlugin {
         return boxManager;
     }
 
+    public PityStore getPityStore() {
+        return pityStore;
+    }
+
+    public BroadcastAggregator getBroadcastAggregator() {
+        return broadcastAggregator;
+    }
+
+    public CommandDispatcher getCommandDispatcher() {
+        return commandDispatcher;
+    }
+
+    public DeliveryScheduler getDeliveryScheduler() {
+        return deliveryScheduler;
+    }
+
+    public PendingRewards getPendingRewards() {
+        return pendingRewards;
+    }
+
+    public Mailbox getMailbox() {
+        return mailbox;
+    }
+
+    public AnimationEngine getAnimationEngine() {
+        return animationEngine;
+    }
+
+    private void setupRandom() {
+        String mode = getConfig().getString("random.mode", "default");
+        if (!mode.equalsIgnoreCase("seeded")) return;
+
+        long seed = getConfig().getLong("random.seed", 0L);
+        if (seed == 0L) {
+            seed = ThreadLocalRandom.current().nextLong();
+        }
+        RewardSelector.setProvider(new SeededRandomProvider(seed, new RollLog(this)));
+        getLogger().info("시드 모드로 추첨합니다. 개봉 기록은 rolls.log 에 저장됩니다.");
+    }
+
     private void loadBoxConfig() {
         File file = new File(getDataFolder(), "box.yml");
 
         if (!file.exists()) {
             saveResource("box.yml", false); // 처음 실행 시 jar에서 추출
         }
+        // 박스를 파일별로 나눠 둘 수 있는 폴더
+        new File(getDataFolder(), BoxManager.BOXES_DIR).mkdirs();
 
-        FileConfiguration config = YamlConfiguration.loadConfiguration(file);
-        boxManager.load(config);
+        boxManager.load();
     }
 }
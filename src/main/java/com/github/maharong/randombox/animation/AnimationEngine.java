@@ -0,0 +1,331 @@
+package com.github.maharong.randombox.animation;
+
+import com.github.maharong.randombox.box.BoxData;
+import com.github.maharong.randombox.reward.ExpReward;
+import com.github.maharong.randombox.reward.ItemReward;
+import com.github.maharong.randombox.reward.MoneyReward;
+import com.github.maharong.randombox.reward.Reward;
+import com.github.maharong.randombox.reward.RewardGroup;
+import com.github.maharong.randombox.util.MessageUtil;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 박스 개봉 시 슬롯머신 형태의 인벤토리 연출을 보여주는 엔진입니다.
+ * <p>
+ * 추첨 결과는 연출을 시작하기 전에 이미 정해져 있으며, 연출은 그 결과가 가운데 칸에 멈추도록 릴을 구성할 뿐입니다.
+ * 진행 중인 모든 연출은 하나의 공용 틱 작업이 처리하고, 한 칸씩 밀릴 때 실제로 바뀌는 슬롯만 갱신합니다.
+ * 아이콘 아이템은 박스마다 한 번만 만들어 캐시합니다. 메인 스레드에서만 사용합니다.
+ */
+public class AnimationEngine implements Listener {
+
+    private static final int REEL_WIDTH = 9;
+    private static final int REEL_START = 9;
+    private static final int CENTER = REEL_WIDTH / 2;
+
+    private final Plugin plugin;
+    private final boolean enabled;
+    private final int steps;
+    private final int holdTicks;
+    // 시작 시점 기준, 각 단계가 실행될 틱 (점점 느려지도록 미리 계산)
+    private final int[] schedule;
+    private final ItemStack filler;
+    private final ItemStack pointer;
+    private final Map<String, IconSet> icons = new HashMap<>();
+    private final List<Animation> active = new ArrayList<>();
+    private long tick;
+    private BukkitTask task;
+
+    /**
+     * @param plugin 작업을 등록할 플러그인
+     * @param enabled false이면 연출 없이 바로 지급합니다.
+     * @param steps 릴이 멈출 때까지 이동하는 칸 수
+     * @param slowdown 마지막 단계의 이동 간격 (틱)
+     * @param holdTicks 결과를 보여준 뒤 창을 닫기까지의 시간 (틱)
+     */
+    public AnimationEngine(Plugin plugin, boolean enabled, int steps, int slowdown, int holdTicks) {
+        this.plugin = plugin;
+        this.enabled = enabled;
+        this.steps = Math.max(1, steps);
+        this.holdTicks = Math.max(0, holdTicks);
+        this.schedule = new int[this.steps + 1];
+        int maxDelay = Math.max(1, slowdown);
+        for (int s = 1; s <= this.steps; s++) {
+            double progress = (double) s / this.steps;
+            schedule[s] = schedule[s - 1] + 1 + (int) Math.round((maxDelay - 1) * progress * progress * progress);
+        }
+        this.filler = icon(Material.GRAY_STAINED_GLASS_PANE);
+        this.pointer = icon(Material.LIME_STAINED_GLASS_PANE);
+    }
+
+    /**
+     * @return 연출 사용 여부
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 이미 추첨된 결과로 개봉 연출을 시작합니다.
+     *
+     * @param player 대상 플레이어
+     * @param box 개봉한 박스
+     * @param drawnIndex 추첨된 보상 그룹 인덱스 ({@link com.github.maharong.randombox.reward.RewardSelector#drawIndex(BoxData, Player)}, 꽝이면 -1)
+     * @param onFinish 연출이 끝나거나 창이 닫혔을 때 한 번 실행할 지급 작업
+     * @return 연출을 시작했으면 true, 사용하지 않도록 설정되어 있으면 false
+     */
+    public boolean play(Player player, BoxData box, int drawnIndex, Runnable onFinish) {
+        if (!enabled) return false;
+
+        IconSet set = iconSet(box);
+        int result = drawnIndex < 0 ? set.missIndex() : drawnIndex;
+
+        // 릴 구성: 마지막 단계에서 결과가 가운데 칸에 오도록 배치
+        int[] reel = new int[steps + REEL_WIDTH];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < reel.length; i++) {
+            int index = box.sampler().sample(random.nextDouble());
+            reel[i] = index < 0 ? set.missIndex() : index;
+        }
+        reel[steps + CENTER] = result;
+
+        AnimationHolder holder = new AnimationHolder();
+        Inventory inventory = Bukkit.createInventory(holder, 27,
+                MessageUtil.get("animation.title", Map.of("box", box.displayName())));
+        holder.inventory = inventory;
+        for (int slot = 0; slot < 27; slot++) {
+            if (slot < REEL_START || slot >= REEL_START + REEL_WIDTH) {
+                inventory.setItem(slot, filler);
+            }
+        }
+        inventory.setItem(CENTER, pointer);
+        inventory.setItem(REEL_START + REEL_WIDTH + CENTER, pointer);
+        for (int i = 0; i < REEL_WIDTH; i++) {
+            inventory.setItem(REEL_START + i, set.icons()[reel[i]]);
+        }
+
+        Animation animation = new Animation(player, inventory, set.icons(), reel, tick, onFinish);
+        holder.animation = animation;
+        active.add(animation);
+        player.openInventory(inventory);
+
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+        return true;
+    }
+
+    /**
+     * @return 진행 중인 연출 수
+     */
+    public int size() {
+        return active.size();
+    }
+
+    /**
+     * 진행 중인 모든 연출을 즉시 끝내고 보상을 지급합니다.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        List<Animation> remaining = new ArrayList<>(active);
+        active.clear();
+        for (Animation animation : remaining) {
+            finish(animation);
+            close(animation);
+        }
+        icons.clear();
+    }
+
+    @EventHandler
+    public void onClick(InventoryClickEvent event) {
+        if (event.getInventory().getHolder() instanceof AnimationHolder) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler
+    public void onDrag(InventoryDragEvent event) {
+        if (event.getInventory().getHolder() instanceof AnimationHolder) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * 연출 도중 창을 닫으면 (접속 종료 포함) 남은 연출을 건너뛰고 바로 지급
+     */
+    @EventHandler
+    public void onClose(InventoryCloseEvent event) {
+        if (!(event.getInventory().getHolder() instanceof AnimationHolder holder)) return;
+        Animation animation = holder.animation;
+        if (animation == null) return;
+        finish(animation);
+        animation.closeAt = tick;
+    }
+
+    private void tick() {
+        tick++;
+        Iterator<Animation> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            Animation animation = iterator.next();
+            if (animation.finished) {
+                if (tick >= animation.closeAt) {
+                    iterator.remove();
+                    close(animation);
+                }
+                continue;
+            }
+            // 멈춘 틱을 따라잡을 때도 한 단계씩만 진행
+            if (tick - animation.startTick >= schedule[animation.step + 1]) {
+                advance(animation);
+            }
+        }
+        if (active.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    // 릴을 한 칸 이동하고, 이전 프레임과 아이콘이 달라진 슬롯만 갱신
+    private void advance(Animation animation) {
+        int step = ++animation.step;
+        int[] reel = animation.reel;
+        for (int i = 0; i < REEL_WIDTH; i++) {
+            int next = reel[step + i];
+            if (next != reel[step + i - 1]) {
+                animation.inventory.setItem(REEL_START + i, animation.icons[next]);
+            }
+        }
+        if (step >= steps) {
+            finish(animation);
+            animation.closeAt = tick + holdTicks;
+        }
+    }
+
+    private void finish(Animation animation) {
+        if (animation.finished) return;
+        animation.finished = true;
+        animation.onFinish.run();
+    }
+
+    private void close(Animation animation) {
+        Player player = animation.player;
+        if (player.isOnline() && player.getOpenInventory().getTopInventory().getHolder() == animation.inventory.getHolder()) {
+            player.closeInventory();
+        }
+    }
+
+    // 박스 데이터가 바뀌었으면(리로드) 아이콘을 다시 만든다
+    private IconSet iconSet(BoxData box) {
+        IconSet set = icons.get(box.id());
+        if (set == null || set.box() != box) {
+            set = IconSet.of(box);
+            icons.put(box.id(), set);
+        }
+        return set;
+    }
+
+    private static ItemStack icon(Material material) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            meta.displayName(Component.empty());
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    /**
+     * 보상 그룹별 아이콘 캐시 (마지막 칸은 꽝 아이콘)
+     */
+    private record IconSet(BoxData box, ItemStack[] icons) {
+
+        static IconSet of(BoxData box) {
+            List<RewardGroup> groups = box.rewards();
+            ItemStack[] icons = new ItemStack[groups.size() + 1];
+            for (int i = 0; i < groups.size(); i++) {
+                icons[i] = iconOf(groups.get(i));
+            }
+            List<RewardGroup> defaults = box.defaultRewards();
+            icons[groups.size()] = defaults == null || defaults.isEmpty()
+                    ? new ItemStack(Material.BARRIER)
+                    : iconOf(defaults.getFirst());
+            return new IconSet(box, icons);
+        }
+
+        int missIndex() {
+            return icons.length - 1;
+        }
+
+        private static ItemStack iconOf(RewardGroup group) {
+            if (group.rewards().isEmpty()) return new ItemStack(Material.BARRIER);
+            Reward first = group.rewards().getFirst();
+            return switch (first) {
+                case ItemReward item -> item.createItem(1);
+                case MoneyReward money -> new ItemStack(Material.GOLD_INGOT);
+                case ExpReward exp -> new ItemStack(Material.EXPERIENCE_BOTTLE);
+                default -> new ItemStack(Material.PAPER);
+            };
+        }
+    }
+
+    /**
+     * 진행 중인 연출 하나의 상태
+     */
+    private static final class Animation {
+        private final Player player;
+        private final Inventory inventory;
+        private final ItemStack[] icons;
+        private final int[] reel;
+        private final long startTick;
+        private final Runnable onFinish;
+        private int step;
+        private boolean finished;
+        private long closeAt;
+
+        private Animation(Player player, Inventory inventory, ItemStack[] icons, int[] reel, long startTick, Runnable onFinish) {
+            this.player = player;
+            this.inventory = inventory;
+            this.icons = icons;
+            this.reel = reel;
+            this.startTick = startTick;
+            this.onFinish = onFinish;
+        }
+    }
+
+    /**
+     * 연출 창을 구분하기 위한 인벤토리 소유자
+     */
+    private static final class AnimationHolder implements InventoryHolder {
+        private Inventory inventory;
+        private Animation animation;
+
+        @Override
+        public @NotNull Inventory getInventory() {
+            return inventory;
+        }
+    }
+}
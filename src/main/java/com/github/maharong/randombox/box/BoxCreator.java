@@ -13,15 +13,18 @@ import java.util.List;
 /**
  * {@code BoxCreator}는 {@link BoxData.LootBox} 데이터를 기반으로
  * 실제 게임 내에서 사용할 수 있는 {@link ItemStack} 형태의 랜덤 박스 아이템을 생성하는 유틸리티 클래스입니다.
+ * 생성 비용이 크므로 {@link BoxManager#createTicket}이 박스마다 한 번만 호출해 원본으로 보관합니다.
  */
 public class BoxCreator {
     /**
-     * 주어진 {@link BoxData.LootBox} 데이터를 바탕으로 커스텀 박스(랜덤 박스 아이템)을 생성합니다.
+     * 주어진 {@link BoxData} 데이터를 바탕으로 커스텀 박스(랜덤 박스 아이템)을 생성합니다.
+     * 티켓에는 박스 ID 대신 박스 인덱스와 설정 세대가 기록됩니다.
      *
-     * @param lootBoxData 박스 생성에 필요한 아이템 정보 (소재, 이름, 로어, 반짝임 등)
+     * @param box 박스 데이터 (티켓 아이템 정보: 소재, 이름, 로어, 반짝임 등)
      * @return 생성된 {@link ItemStack} 객체. MiniMessage 포맷이 적용된 이름과 로어를 포함합니다.
      */
-    public static ItemStack create(String id, BoxData.LootBox lootBoxData) {
+    public static ItemStack create(BoxData box) {
+        BoxData.LootBox lootBoxData = box.lootBox();
         // 티켓 아이템 생성 (예: NAME_TAG)
         ItemStack item = new ItemStack(lootBoxData.material());
         ItemMeta meta = item.getItemMeta();
@@ -53,7 +56,7 @@ public class BoxCreator {
 
             item.setItemMeta(meta);
         }
-        NBTUtil.setBoxId(item, id);
+        NBTUtil.setTicket(item, box.index(), box.generation(), 0);
         return item;
     }
 }
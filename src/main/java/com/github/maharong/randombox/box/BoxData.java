@@ -1,5 +1,6 @@
 package com.github.maharong.randombox.box;
 
+import com.github.maharong.randombox.reward.AliasTable;
 import com.github.maharong.randombox.reward.RewardGroup;
 import org.bukkit.Material;
 import java.util.List;
@@ -8,12 +9,19 @@ import java.util.List;
  * 랜덤 박스 정보를 저장하는 클래스입니다.
  *
  * @param id 박스의 고유 ID (명령어 등에서 사용)
+ * @param index 티켓에 기록되는 고정 숫자 인덱스 (box-index.yml 에 보관되며 재사용되지 않음)
+ * @param generation 박스 설정 세대 (설정 내용이 바뀔 때마다 증가)
+ * @param fingerprint 박스 설정 섹션의 지문 (변경 여부 비교용)
  * @param lootBox 박스를 열기 위한 티켓 아이템 정보
  * @param rewards 확률 기반 보상 그룹 목록
  * @param defaultRewards 확률 누락 시 적용되는 '꽝' 보상 그룹 (합산 확률이 100% 미만일 때 사용)
+ * @param sampler rewards 목록으로부터 미리 계산한 추첨용 별칭 테이블
+ * @param pityGroups 천장이 설정된 그룹의 인덱스 목록 (rewards 기준)
+ * @param pityBase 이 박스의 첫 천장 카운터 슬롯 번호 ({@code pityBase + k}가 pityGroups[k]의 슬롯)
  */
-public record BoxData(String id, LootBox lootBox,
-                      List<RewardGroup> rewards, List<RewardGroup> defaultRewards) {
+public record BoxData(String id, int index, int generation, String fingerprint, LootBox lootBox,
+                      List<RewardGroup> rewards, List<RewardGroup> defaultRewards,
+                      AliasTable sampler, int[] pityGroups, int pityBase) {
 
     /**
      * 박스를 열기 위한 티켓 정보입니다.
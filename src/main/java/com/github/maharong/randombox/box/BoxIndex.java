@@ -0,0 +1,130 @@
+package com.github.maharong.randombox.box;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 박스 ID마다 고정된 숫자 인덱스와 설정 세대(generation)를 부여하고 box-index.yml 에 보관합니다.
+ * <p>
+ * 인덱스는 한 번 부여되면 박스가 삭제되어도 다른 박스에 재사용되지 않으므로, 티켓에 인덱스만 기록해도 안전합니다.
+ * 세대는 박스 설정 내용의 지문(fingerprint)이 바뀔 때마다 1씩 증가하며, 오래된 티켓을 구분하는 데 사용됩니다.
+ */
+public class BoxIndex {
+
+    private final File file;
+    private final YamlConfiguration data = new YamlConfiguration();
+    // 읽어 들인 파일 내용 (파일이 없으면 null)
+    private byte[] raw;
+    private boolean dirty;
+
+    public BoxIndex(File file) {
+        this.file = file;
+        if (!file.isFile()) return;
+        try {
+            raw = Files.readAllBytes(file.toPath());
+            data.loadFromString(new String(raw, StandardCharsets.UTF_8));
+        } catch (IOException | InvalidConfigurationException e) {
+            Bukkit.getLogger().warning("[RandomBox] box-index.yml 을 읽지 못했습니다: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 박스의 인덱스를 반환합니다. 처음 보는 박스면 새 인덱스를 부여합니다.
+     *
+     * @param id 박스 ID
+     * @return 고정 인덱스 (0부터 시작)
+     */
+    public int indexOf(String id) {
+        String path = "boxes." + id + ".index";
+        if (data.isInt(path)) {
+            return data.getInt(path);
+        }
+        int index = data.getInt("next-index", 0);
+        data.set(path, index);
+        data.set("next-index", index + 1);
+        dirty = true;
+        return index;
+    }
+
+    /**
+     * 박스 설정의 지문을 비교해 현재 세대를 반환합니다. 내용이 바뀌었으면 세대를 올립니다.
+     *
+     * @param id 박스 ID
+     * @param fingerprint 박스 설정 지문 ({@link #fingerprint(ConfigurationSection)})
+     * @return 현재 세대 (1부터 시작)
+     */
+    public int generationOf(String id, String fingerprint) {
+        String base = "boxes." + id;
+        int generation = data.getInt(base + ".generation", 0);
+        if (generation > 0 && fingerprint.equals(data.getString(base + ".hash"))) {
+            return generation;
+        }
+        generation++;
+        data.set(base + ".generation", generation);
+        data.set(base + ".hash", fingerprint);
+        dirty = true;
+        return generation;
+    }
+
+    /**
+     * @return 지금까지 부여된 인덱스의 개수 (가장 큰 인덱스 + 1)
+     */
+    public int capacity() {
+        return data.getInt("next-index", 0);
+    }
+
+    /**
+     * {@link #save()} 이후 파일에 들어 있을 내용을 반환합니다. (박스 캐시 키 계산용)
+     *
+     * @return 파일 내용 (파일이 없고 변경도 없으면 null)
+     */
+    public byte[] contents() {
+        return dirty ? data.saveToString().getBytes(StandardCharsets.UTF_8) : raw;
+    }
+
+    /**
+     * 변경 사항이 있으면 파일에 저장합니다.
+     */
+    public void save() {
+        if (!dirty) return;
+        try {
+            data.save(file);
+            dirty = false;
+        } catch (IOException e) {
+            Bukkit.getLogger().warning("[RandomBox] box-index.yml 저장 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 박스 설정 섹션의 모든 값을 경로 순으로 정렬해 SHA-256 지문을 만듭니다.
+     *
+     * @param section 박스 설정 섹션
+     * @return 16진수 지문 문자열
+     */
+    public static String fingerprint(ConfigurationSection section) {
+        Map<String, Object> values = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : section.getValues(true).entrySet()) {
+            if (entry.getValue() instanceof ConfigurationSection) continue;
+            values.put(entry.getKey(), entry.getValue());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(values.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
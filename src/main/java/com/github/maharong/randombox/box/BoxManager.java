@@ -1,6 +1,9 @@
 package com.github.maharong.randombox.box;
 
 import com.github.maharong.randombox.RandomBox;
+import com.github.maharong.randombox.pity.PityLayout;
+import com.github.maharong.randombox.pity.PityStore;
+import com.github.maharong.randombox.reward.AliasTable;
 import com.github.maharong.randombox.reward.RewardGroup;
 import com.github.maharong.randombox.util.MessageUtil;
 import com.github.maharong.randombox.util.YamlUtil;
@@ -8,135 +11,478 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 /**
  * 랜덤 박스 전체를 관리하는 클래스입니다.
- * box.yml에 정의된 모든 박스를 파싱하고, ID로 접근할 수 있도록 저장합니다.
+ * box.yml과 boxes 폴더에 정의된 모든 박스를 파싱하고, ID로 접근할 수 있도록 저장합니다.
+ * <p>
+ * 박스 목록은 불변 {@link BoxRegistry}로 보관되며, 리로드는 새 레지스트리가 검증을 모두 통과한 경우에만 교체합니다.
  */
 public class BoxManager {
-    private final Map<String, BoxData> boxMap = new HashMap<>();
+    /** 박스를 파일별로 나눠 둘 수 있는 폴더 이름 */
+    public static final String BOXES_DIR = "boxes";
+
+    private final AtomicReference<BoxRegistry> registry = new AtomicReference<>(BoxRegistry.EMPTY);
+    // 박스별 티켓 원본 (외부에 노출하지 않고 복제해서만 사용)
+    private final Map<String, Prototype> prototypes = new ConcurrentHashMap<>();
+    // 진행 중인 리로드와, 진행 중에 다시 요청된 리로드 (메인 스레드에서만 접근)
+    private CompletableFuture<List<String>> pendingReload;
+    private CompletableFuture<List<String>> queuedReload;
+    private boolean queuedFull;
 
     /**
-     * box.yml을 파싱하여 모든 박스를 로드합니다.
+     * box.yml과 boxes 폴더의 박스 파일을 파싱하여 모든 박스를 로드합니다. (서버 시작 시)
+     * 원본 파일이 바뀌지 않았으면 박스 캐시(box-cache.bin)에서 바로 읽어 들입니다.
      * 구성 오류 발생 시 플러그인을 비활성화합니다.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        List<File> files = sources();
+        boolean useCache = RandomBox.getInstance().getConfig().getBoolean("box-cache.enabled", true);
+
+        if (useCache && loadSnapshot(files, start)) return;
+
+        BoxIndex index = new BoxIndex(indexFile());
+        List<String> errors = new ArrayList<>();
+        Built built = build(files, index, null, errors);
+        if (!errors.isEmpty()) {
+            errors.forEach(this::logError);
+            error("박스 설정에서 " + errors.size() + "개의 오류가 발견되었습니다.");
+            return;
+        }
+        index.save();
+        publish(built.registry());
+
+        long parseNanos = System.nanoTime() - start;
+        Bukkit.getLogger().info("[RandomBox] 박스 설정 전체 파싱 완료 (" + millis(parseNanos) + "ms)");
+        if (useCache) {
+            saveSnapshot(built, parseNanos);
+        }
+    }
+
+    // 해시가 일치하는 캐시가 있으면 파싱 없이 레지스트리를 만든다
+    private boolean loadSnapshot(List<File> files, long start) {
+        byte[] hash;
+        try {
+            hash = BoxSnapshot.hash(files, indexFile());
+        } catch (IOException e) {
+            return false;
+        }
+        BoxSnapshot.Loaded cached = BoxSnapshot.read(snapshotFile(), hash);
+        if (cached == null) return false;
+
+        BoxIndex index = new BoxIndex(indexFile());
+        List<String> pityKeys = new ArrayList<>();
+        List<BoxData> boxes = new ArrayList<>();
+        for (BoxData box : cached.boxes()) {
+            boxes.add(place(box, index, pityKeys));
+        }
+        publish(BoxRegistry.of(boxes, index.capacity(), pityKeys));
+        Bukkit.getLogger().info("[RandomBox] 박스 캐시에서 불러왔습니다 (" + millis(System.nanoTime() - start)
+                + "ms, 전체 파싱 시 " + millis(cached.parseNanos()) + "ms)");
+        return true;
+    }
+
+    // 파싱할 때 계산한 해시로 캐시를 기록 (그 사이 파일이 바뀌었다면 다음 시작 시 해시가 달라 캐시를 쓰지 않음)
+    private void saveSnapshot(Built built, long parseNanos) {
+        BoxSnapshot.write(snapshotFile(), built.hash(), List.copyOf(built.registry().boxes().values()), parseNanos);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 박스 설정과 message.yml을 다시 불러옵니다.
+     * <p>
+     * 박스 파싱과 검증은 비동기로 수행되며, 오류가 하나도 없을 때만 메인 스레드에서 새 박스 목록으로 교체합니다.
+     * 오류가 있으면 기존 박스 목록을 그대로 유지합니다.
+     *
+     * @return 메인 스레드에서 완료되는 오류 목록 (성공하면 빈 목록)
+     */
+    public CompletableFuture<List<String>> reload() {
+        MessageUtil.reload();
+        prototypes.clear(); // 티켓 사용법 로어(box.usage-lore) 갱신
+        return reloadBoxes(false);
+    }
+
+    /**
+     * 박스 설정(box.yml, boxes 폴더)만 다시 불러옵니다. (message.yml은 그대로)
      *
-     * @param config box.yml의 루트 설정 (boxes 섹션 포함)
+     * 이미 리로드가 진행 중이면 그 리로드가 끝난 직후 한 번 더 리로드하도록 예약합니다.
+     * (진행 중인 리로드가 읽은 뒤에 바뀐 파일도 반영되도록)
+     *
+     * @param incremental true이면 설정 내용이 바뀌지 않은 박스는 다시 파싱하지 않고 기존 데이터를 재사용합니다.
+     * @return 메인 스레드에서 완료되는 오류 목록 (성공하면 빈 목록, 진행 중이었으면 예약된 다음 리로드의 결과)
      */
-    public void load(FileConfiguration config) {
-        boxMap.clear();
+    public CompletableFuture<List<String>> reloadBoxes(boolean incremental) {
+        if (pendingReload != null && !pendingReload.isDone()) {
+            if (queuedReload == null) queuedReload = new CompletableFuture<>();
+            queuedFull |= !incremental;
+            return queuedReload;
+        }
+
+        RandomBox plugin = RandomBox.getInstance();
+        BoxRegistry previous = incremental ? registry.get() : null;
+
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        pendingReload = future;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long start = System.nanoTime();
+            List<String> errors = new ArrayList<>();
+            List<File> files = sources();
+            BoxIndex index = new BoxIndex(indexFile());
+            Built built = build(files, index, previous, errors);
+            long parseNanos = System.nanoTime() - start;
+
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (errors.isEmpty()) {
+                    index.save();
+                    publish(built.registry());
+                    // 전체 파싱 결과만 캐시로 남긴다 (다음 서버 시작 시 사용)
+                    if (previous == null && plugin.getConfig().getBoolean("box-cache.enabled", true)) {
+                        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> saveSnapshot(built, parseNanos));
+                    }
+                } else {
+                    errors.forEach(this::logError);
+                    Bukkit.getLogger().warning("[RandomBox] 박스 설정 리로드 실패 - 기존 박스 설정을 유지합니다.");
+                }
+                // 진행 중에 들어온 변경 반영 (완료 콜백에서 다시 요청해도 예약된 리로드에 합쳐지도록 먼저 시작)
+                CompletableFuture<List<String>> queued = queuedReload;
+                if (queued != null) {
+                    boolean full = queuedFull;
+                    queuedReload = null;
+                    queuedFull = false;
+                    reloadBoxes(!full).whenComplete((result, error) -> {
+                        if (error != null) queued.completeExceptionally(error);
+                        else queued.complete(result);
+                    });
+                }
+                future.complete(List.copyOf(errors));
+            });
+        });
+        return future;
+    }
+
+    /**
+     * 박스 설정 파일 목록을 반환합니다. box.yml이 먼저 오고, 이어서 boxes 폴더의 yml 파일이 경로 순으로 옵니다.
+     *
+     * @return 파싱할 파일 목록
+     */
+    public List<File> sources() {
+        File dataFolder = RandomBox.getInstance().getDataFolder();
+        List<File> files = new ArrayList<>();
+        File main = new File(dataFolder, "box.yml");
+        if (main.isFile()) {
+            files.add(main);
+        }
+        Path dir = new File(dataFolder, BOXES_DIR).toPath();
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> walk = Files.walk(dir)) {
+                walk.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(".yml"))
+                        .sorted()
+                        .forEach(path -> files.add(path.toFile()));
+            } catch (IOException e) {
+                Bukkit.getLogger().warning("[RandomBox] boxes 폴더를 읽지 못했습니다: " + e.getMessage());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 모든 박스 파일을 병렬로 파싱한 뒤, 파일 순서대로 합쳐 새 레지스트리를 만듭니다.
+     * 오류는 중단하지 않고 모두 수집하며, 한 파일의 오류가 다른 파일의 파싱에 영향을 주지 않습니다.
+     * 메인 스레드가 아닌 곳에서도 호출할 수 있습니다.
+     *
+     * @param previous 재사용할 이전 레지스트리 (null이면 모든 박스를 새로 파싱)
+     * @return 새 레지스트리와 파싱한 내용의 캐시 키 (오류가 있으면 해시는 null)
+     */
+    private Built build(List<File> files, BoxIndex index, BoxRegistry previous, List<String> errors) {
+        if (files.isEmpty()) {
+            errors.add("box.yml 이나 boxes 폴더에 박스 설정 파일이 없습니다.");
+            return new Built(null, null);
+        }
+
+        List<FileResult> results = parseAll(files, previous);
+
+        // 파일 순서대로 병합: 중복 ID 검사, 인덱스/세대/천장 슬롯 부여 (순서에 의존하므로 단일 스레드)
+        List<BoxData> boxes = new ArrayList<>();
+        List<String> pityKeys = new ArrayList<>();
+        Map<String, String> owners = new HashMap<>();
+        List<byte[]> contents = new ArrayList<>(results.size());
+        int reused = 0;
+        for (FileResult result : results) {
+            errors.addAll(result.errors());
+            contents.add(result.content());
+            reused += result.reused();
+            for (BoxData draft : result.boxes()) {
+                String owner = owners.putIfAbsent(draft.id(), result.source());
+                if (owner != null) {
+                    errors.add(result.source() + ": 박스 '" + draft.id() + "' 가 " + owner + " 에 이미 정의되어 있습니다.");
+                    continue;
+                }
+                boxes.add(place(draft, index, pityKeys));
+            }
+        }
+        if (previous != null) {
+            Bukkit.getLogger().info("[RandomBox] 변경된 박스 " + (boxes.size() - reused) + "개를 다시 불러왔습니다. (유지: " + reused + "개)");
+        }
+        BoxRegistry registry = BoxRegistry.of(boxes, index.capacity(), pityKeys);
+        // 실제로 파싱한 내용과 저장될 인덱스 내용으로 캐시 키를 계산
+        byte[] hash = errors.isEmpty() ? BoxSnapshot.hash(files, contents, index.contents()) : null;
+        return new Built(registry, hash);
+    }
+
+    // 파일이 여러 개면 작업 스레드에 나눠 파싱 (결과는 파일 순서 유지)
+    private List<FileResult> parseAll(List<File> files, BoxRegistry previous) {
+        if (files.size() == 1) {
+            return List.of(parseFile(files.getFirst(), previous));
+        }
+
+        int threads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "RandomBox-BoxLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>();
+            for (File file : files) {
+                futures.add(pool.submit(() -> parseFile(file, previous)));
+            }
+            List<FileResult> results = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    String source = sourceName(files.get(i));
+                    results.add(new FileResult(source, null, List.of(), List.of(source + ": " + e.getCause()), 0));
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return List.of(new FileResult("-", null, List.of(), List.of("박스 파일 로딩이 중단되었습니다."), 0));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 파일 하나를 파싱합니다. 박스마다 독립적으로 처리하므로 한 박스의 오류가 같은 파일의 다른 박스에 영향을 주지 않습니다.
+     * 반환되는 박스는 인덱스, 세대, 천장 슬롯이 정해지지 않은 초안입니다. ({@link #place})
+     */
+    private FileResult parseFile(File file, BoxRegistry previous) {
+        String source = sourceName(file);
+        YamlConfiguration config = new YamlConfiguration();
+        // 캐시 키도 이 내용으로 계산하므로 파일은 한 번만 읽는다
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+            config.loadFromString(new String(content, StandardCharsets.UTF_8));
+        } catch (IOException | InvalidConfigurationException e) {
+            return new FileResult(source, null, List.of(), List.of(source + ": 파일을 읽는 중 오류 발생: " + e.getMessage()), 0);
+        }
 
         ConfigurationSection boxesSection = config.getConfigurationSection("boxes");
         if (boxesSection == null) {
-            error("box.yml 에 'boxes' 섹션이 존재하지 않습니다.");
-            return;
+            return new FileResult(source, content, List.of(), List.of(source + ": 'boxes' 섹션이 존재하지 않습니다."), 0);
         }
 
+        List<BoxData> boxes = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int reused = 0;
         for (String id : boxesSection.getKeys(false)) {
             ConfigurationSection section = boxesSection.getConfigurationSection(id);
             if (section == null) continue;
 
             try {
-                // lootbox
-                ConfigurationSection lootSec = section.getConfigurationSection("lootbox");
-                if (lootSec == null) throw new IllegalArgumentException("lootbox 섹션이 없습니다.");
-                Material material = Material.matchMaterial(lootSec.getString("material", "PAPER"));
-                if (material == null) throw new IllegalArgumentException("잘못된 lootbox material입니다.");
-
-                String name = lootSec.getString("name", "<gray>랜덤 박스");
-                List<String> lore = lootSec.getStringList("lore");
-                boolean shiny = lootSec.getBoolean("shiny", false);
-
-                BoxData.LootBox lootBox = new BoxData.LootBox(material, name, lore, shiny);
-
-                // rewards
-                List<?> tempList = section.getList("rewards");
-                if (tempList == null) {
-                    Bukkit.getLogger().warning("[RandomBox] '" + id + "' 박스: rewards 섹션이 null입니다.");
+                String fingerprint = BoxIndex.fingerprint(section);
+                BoxData old = previous == null ? null : previous.boxes().get(id);
+                if (old != null && old.fingerprint().equals(fingerprint)) {
+                    boxes.add(old);
+                    reused++;
                 } else {
-                    Bukkit.getLogger().info("[RandomBox] '" + id + "' 박스: rewards 섹션 로드 성공, 항목 수: " + tempList.size());
+                    boxes.add(parseBox(id, section, fingerprint));
                 }
-                List<RewardGroup> rewards = YamlUtil.parseRewardGroups(
-                        (List<Map<String, Object>>) (tempList != null ? tempList : new ArrayList<>())
-                );
-                double totalChance = rewards.stream().mapToDouble(RewardGroup::chance).sum();
-
-                // default.rewards
-                List<?> tempDefaultList = section.getList("default.rewards");
-                List<RewardGroup> defaultRewards = new ArrayList<>();
-
-                if (tempDefaultList != null && !tempDefaultList.isEmpty()) {
-                    Object first = tempDefaultList.getFirst();
-                    if (first instanceof Map<?, ?> map && !map.containsKey("rewards")) {
-                        // 단일 Reward 리스트로 추정 → 감싸서 RewardGroup 생성
-                        List<Map<String, Object>> rawRewards = new ArrayList<>();
-                        for (Object obj : tempDefaultList) {
-                            if (obj instanceof Map<?, ?> m) {
-                                rawRewards.add((Map<String, Object>) m);
-                            }
-                        }
-                        RewardGroup group = new RewardGroup(0.0, YamlUtil.parseRewards(rawRewards), null);
-                        defaultRewards.add(group);
-                    } else {
-                        // 정상 구조 (RewardGroup 리스트)
-                        List<Map<String, Object>> rawGroups = new ArrayList<>();
-                        for (Object obj : tempDefaultList) {
-                            if (obj instanceof Map<?, ?> m) {
-                                rawGroups.add((Map<String, Object>) m);
-                            }
-                        }
-                        defaultRewards = YamlUtil.parseRewardGroups(rawGroups);
+            } catch (Exception e) {
+                errors.add(source + ": 박스 '" + id + "' 로딩 중 오류 발생: " + e.getMessage());
+            }
+        }
+        return new FileResult(source, content, boxes, errors, reused);
+    }
+
+    /**
+     * 초안 박스에 고정 인덱스, 설정 세대, 천장 슬롯 번호를 부여합니다.
+     * 이미 같은 값을 가진 박스(재사용된 박스)는 그대로 반환합니다.
+     */
+    private BoxData place(BoxData draft, BoxIndex index, List<String> pityKeys) {
+        int boxIndex = index.indexOf(draft.id());
+        int generation = index.generationOf(draft.id(), draft.fingerprint());
+        int pityBase = pityKeys.size();
+        for (int group : draft.pityGroups()) {
+            pityKeys.add(PityLayout.key(draft.id(), group));
+        }
+        if (draft.index() == boxIndex && draft.generation() == generation && draft.pityBase() == pityBase) {
+            return draft;
+        }
+        return new BoxData(draft.id(), boxIndex, generation, draft.fingerprint(), draft.lootBox(),
+                draft.rewards(), draft.defaultRewards(), draft.sampler(), draft.pityGroups(), pityBase);
+    }
+
+    private String sourceName(File file) {
+        return RandomBox.getInstance().getDataFolder().toPath().relativize(file.toPath()).toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private BoxData parseBox(String id, ConfigurationSection section, String fingerprint) {
+        // lootbox
+        ConfigurationSection lootSec = section.getConfigurationSection("lootbox");
+        if (lootSec == null) throw new IllegalArgumentException("lootbox 섹션이 없습니다.");
+        Material material = Material.matchMaterial(lootSec.getString("material", "PAPER"));
+        if (material == null) throw new IllegalArgumentException("잘못된 lootbox material입니다.");
+
+        String name = lootSec.getString("name", "<gray>랜덤 박스");
+        List<String> lore = lootSec.getStringList("lore");
+        boolean shiny = lootSec.getBoolean("shiny", false);
+
+        BoxData.LootBox lootBox = new BoxData.LootBox(material, name, lore, shiny);
+
+        // rewards
+        List<?> tempList = section.getList("rewards");
+        if (tempList == null) {
+            Bukkit.getLogger().warning("[RandomBox] '" + id + "' 박스: rewards 섹션이 null입니다.");
+        } else {
+            Bukkit.getLogger().info("[RandomBox] '" + id + "' 박스: rewards 섹션 로드 성공, 항목 수: " + tempList.size());
+        }
+        List<RewardGroup> rewards = YamlUtil.parseRewardGroups(
+                (List<Map<String, Object>>) (tempList != null ? tempList : new ArrayList<>())
+        );
+        double totalChance = rewards.stream().mapToDouble(RewardGroup::chance).sum();
+
+        // default.rewards
+        List<?> tempDefaultList = section.getList("default.rewards");
+        List<RewardGroup> defaultRewards = new ArrayList<>();
+
+        if (tempDefaultList != null && !tempDefaultList.isEmpty()) {
+            Object first = tempDefaultList.getFirst();
+            if (first instanceof Map<?, ?> map && !map.containsKey("rewards")) {
+                // 단일 Reward 리스트로 추정 → 감싸서 RewardGroup 생성
+                List<Map<String, Object>> rawRewards = new ArrayList<>();
+                for (Object obj : tempDefaultList) {
+                    if (obj instanceof Map<?, ?> m) {
+                        rawRewards.add((Map<String, Object>) m);
                     }
                 }
-
-                // 1. 100 초과 검사
-                if (totalChance > 100.0) {
-                    throw new IllegalArgumentException("보상 확률 총합이 100을 초과합니다. 현재: " + totalChance + "%");
+                RewardGroup group = new RewardGroup(0.0, YamlUtil.parseRewards(rawRewards), null);
+                defaultRewards.add(group);
+            } else {
+                // 정상 구조 (RewardGroup 리스트)
+                List<Map<String, Object>> rawGroups = new ArrayList<>();
+                for (Object obj : tempDefaultList) {
+                    if (obj instanceof Map<?, ?> m) {
+                        rawGroups.add((Map<String, Object>) m);
+                    }
                 }
+                defaultRewards = YamlUtil.parseRewardGroups(rawGroups);
+            }
+        }
 
-                // 2. 100 미만일 경우 default 보상 검사 및 보정 추가
-                if (totalChance < 100.0) {
-                    if (defaultRewards.isEmpty()) {
-                        throw new IllegalArgumentException("확률 총합이 100 미만인데 default.rewards가 존재하지 않습니다.");
-                    }
+        // weighted: true 인 박스는 chance를 상대 가중치로 취급 (100% 검사 생략)
+        boolean weighted = section.getBoolean("weighted", false);
 
-                    // 직접 보정용 RewardGroup 생성
-                    double remaining = 100.0 - totalChance;
+        // 1. 100 초과 검사
+        if (!weighted && totalChance > 100.0) {
+            throw new IllegalArgumentException("보상 확률 총합이 100을 초과합니다. 현재: " + totalChance + "%");
+        }
 
-                    // 첫 RewardGroup에서 rewards 목록만 꺼내서 보정
-                    RewardGroup rawGroup = defaultRewards.getFirst();
-                    RewardGroup defaultGroup = new RewardGroup(
-                            remaining,
-                            rawGroup.rewards(), // <- rewards 항목만 파싱
-                            null // 조건 없음
-                    );
+        // 2. 100 미만일 경우 default 보상 검사 및 보정 추가
+        if (!weighted && totalChance < 100.0) {
+            if (defaultRewards.isEmpty()) {
+                throw new IllegalArgumentException("확률 총합이 100 미만인데 default.rewards가 존재하지 않습니다.");
+            }
 
-                    rewards.add(defaultGroup);
-                }
+            // 직접 보정용 RewardGroup 생성
+            double remaining = 100.0 - totalChance;
 
-                BoxData data = new BoxData(id, lootBox, rewards, defaultRewards);
-                boxMap.put(id, data);
+            // 첫 RewardGroup에서 rewards 목록만 꺼내서 보정
+            RewardGroup rawGroup = defaultRewards.getFirst();
+            RewardGroup defaultGroup = new RewardGroup(
+                    remaining,
+                    rawGroup.rewards(), // <- rewards 항목만 파싱
+                    null // 조건 없음
+            );
 
-            } catch (Exception e) {
-                error("박스 '" + id + "' 로딩 중 오류 발생: " + e.getMessage());
-                return;
+            rewards.add(defaultGroup);
+        }
+
+        if (weighted && totalChance <= 0.0) {
+            throw new IllegalArgumentException("가중치 총합이 0 이하입니다.");
+        }
+
+        // 추첨용 별칭 테이블을 미리 계산
+        AliasTable sampler = AliasTable.of(rewards);
+
+        // 천장이 설정된 그룹 (카운터 슬롯은 병합 시 부여)
+        List<Integer> pityGroups = new ArrayList<>();
+        for (int i = 0; i < rewards.size(); i++) {
+            if (rewards.get(i).pity() > 0) {
+                pityGroups.add(i);
             }
         }
 
-        Bukkit.getLogger().info("[RandomBox] box.yml 로딩 완료 - 총 " + boxMap.size() + "개 박스 등록됨.");
+        return new BoxData(id, -1, 0, fingerprint, lootBox, rewards, defaultRewards, sampler,
+                pityGroups.stream().mapToInt(Integer::intValue).toArray(), 0);
     }
 
-    private void error(String message) {
+    // 검증을 통과한 레지스트리를 한 번에 교체 (메인 스레드)
+    private void publish(BoxRegistry loaded) {
+        PityStore pityStore = RandomBox.getInstance().getPityStore();
+        if (pityStore != null) {
+            pityStore.setLayout(loaded.pityLayout());
+        }
+        registry.set(loaded);
+        prototypes.clear();
+        Bukkit.getLogger().info("[RandomBox] box.yml 로딩 완료 - 총 " + loaded.boxes().size() + "개 박스 등록됨.");
+    }
+
+    private File indexFile() {
+        return new File(RandomBox.getInstance().getDataFolder(), "box-index.yml");
+    }
+
+    private File snapshotFile() {
+        return new File(RandomBox.getInstance().getDataFolder(), "box-cache.bin");
+    }
+
+    private void logError(String message) {
         Bukkit.getLogger().severe("[RandomBox] 오류: " + message);
+    }
+
+    private void error(String message) {
+        logError(message);
         Bukkit.getPluginManager().disablePlugin(RandomBox.getInstance());
     }
 
@@ -147,33 +493,71 @@ public class BoxManager {
      * @return 해당 박스 데이터, 없으면 null
      */
     public BoxData getBox(String id) {
-        return boxMap.get(id);
+        return registry.get().boxes().get(id);
+    }
+
+    /**
+     * 티켓에 기록된 고정 인덱스로 박스를 조회합니다.
+     *
+     * @param index 박스 인덱스 ({@link BoxData#index()})
+     * @return 해당 박스 데이터, 없거나 삭제된 박스면 null
+     */
+    public BoxData getBox(int index) {
+        return registry.get().get(index);
+    }
+
+    /**
+     * 해당 아이템 종류가 박스 티켓으로 쓰이는지 확인합니다.
+     * 아이템 메타를 읽기 전에 일반 아이템을 걸러내는 용도입니다.
+     *
+     * @param material 아이템 종류
+     * @return 박스 티켓 재료이면 true
+     */
+    public boolean isBoxMaterial(Material material) {
+        return registry.get().materials().contains(material);
     }
 
     /**
      * 등록된 모든 박스를 반환합니다.
      *
-     * @return ID → 박스 데이터 Map
+     * @return ID → 박스 데이터 Map (수정 불가)
      */
     public Map<String, BoxData> getAllBoxes() {
-        return boxMap;
+        return registry.get().boxes();
     }
 
-    public void sendBoxList(CommandSender sender) {
-        if (boxMap.isEmpty()) {
+    /**
+     * 박스 목록을 ID 순으로 한 페이지씩 출력합니다.
+     *
+     * @param sender 받을 대상
+     * @param page 페이지 번호 (1부터, 범위를 벗어나면 가까운 페이지로 보정)
+     * @param pageSize 한 페이지에 보여줄 박스 수
+     */
+    public void sendBoxList(CommandSender sender, int page, int pageSize) {
+        BoxRegistry current = registry.get();
+        List<String> ids = current.sortedIds();
+        if (ids.isEmpty()) {
             MessageUtil.send(sender, "box.empty");
             return;
         }
 
+        int size = Math.max(1, pageSize);
+        int pages = (ids.size() + size - 1) / size;
+        int shown = Math.min(Math.max(1, page), pages);
+        int from = (shown - 1) * size;
+        int to = Math.min(from + size, ids.size());
+
         MessageUtil.send(sender, "box.list.header");
-        for (String id : boxMap.keySet()) {
-            BoxData data = boxMap.get(id);
-            MessageUtil.send(sender, "box.list.entry", "{id}", id, "{name}", data.lootBox().name());
+        for (int i = from; i < to; i++) {
+            String id = ids.get(i);
+            MessageUtil.send(sender, "box.list.entry", "{id}", id, "{name}", current.boxes().get(id).lootBox().name());
         }
+        MessageUtil.send(sender, "box.list.footer", "{page}", String.valueOf(shown), "{pages}", String.valueOf(pages),
+                "{count}", String.valueOf(ids.size()));
     }
 
     public void sendBoxInfo(CommandSender sender, String id) {
-        BoxData data = boxMap.get(id);
+        BoxData data = getBox(id);
         if (data == null) {
             MessageUtil.send(sender, "box.not-found", "{id}", id);
             return;
@@ -186,30 +570,130 @@ public class BoxManager {
         MessageUtil.send(sender, "box.info.rewards", "{count}", String.valueOf(data.rewards().size()));
     }
 
+    /**
+     * 박스 티켓을 지정한 수량으로 만듭니다. 박스마다 한 번 만들어 둔 원본을 복제하므로 비용이 거의 없습니다.
+     *
+     * @param box 박스 데이터
+     * @param amount 수량 (최대 스택 크기 이하)
+     * @return 새 티켓 아이템
+     */
+    public ItemStack createTicket(BoxData box, int amount) {
+        Prototype prototype = prototypes.get(box.id());
+        if (prototype == null || prototype.box() != box) {
+            // 처음 사용하거나 리로드 전의 박스 데이터면 새로 만든다
+            prototype = new Prototype(box, BoxCreator.create(box));
+            prototypes.put(box.id(), prototype);
+        }
+        ItemStack item = prototype.item().clone();
+        item.setAmount(amount);
+        return item;
+    }
+
+    /**
+     * @return 한 번에 지급할 수 있는 최대 박스 수 (config.yml의 give.max-amount)
+     */
+    public int getMaxGiveAmount() {
+        return Math.max(1, RandomBox.getInstance().getConfig().getInt("give.max-amount", 6400));
+    }
+
+    /**
+     * 박스 티켓을 최대 스택 크기에 맞춰 여러 묶음으로 나눠 만듭니다.
+     *
+     * @param box 박스 데이터
+     * @param amount 전체 수량 (1 ~ {@link #getMaxGiveAmount()})
+     * @return 티켓 묶음 목록
+     * @throws IllegalArgumentException 수량이 허용 범위를 벗어난 경우
+     */
+    public List<ItemStack> createTickets(BoxData box, int amount) {
+        int maxAmount = getMaxGiveAmount();
+        if (amount <= 0 || amount > maxAmount) {
+            throw new IllegalArgumentException("지급 수량은 1 ~ " + maxAmount + " 사이여야 합니다: " + amount);
+        }
+        ItemStack first = createTicket(box, 1);
+        int max = Math.max(1, first.getMaxStackSize());
+        List<ItemStack> stacks = new ArrayList<>(amount / max + 1);
+        int remaining = amount;
+        while (remaining > 0) {
+            int count = Math.min(max, remaining);
+            ItemStack stack = stacks.isEmpty() ? first : first.clone();
+            stack.setAmount(count);
+            stacks.add(stack);
+            remaining -= count;
+        }
+        return stacks;
+    }
+
     public boolean giveBox(Player player, String id, int amount) {
-        BoxData data = boxMap.get(id);
+        BoxData data = getBox(id);
         if (data == null) return false;
 
-        ItemStack item = BoxCreator.create(id, data.lootBox());
-        item.setAmount(amount);
+        // 인벤토리에 한 번에 넣고, 공간이 부족하면 남은 묶음을 우편함에 보관
+        List<ItemStack> stacks = createTickets(data, amount);
+        RandomBox.getInstance().getMailbox().giveOrStore(player, stacks.toArray(new ItemStack[0]));
+        return true;
+    }
 
-        Map<Integer, ItemStack> leftover = player.getInventory().addItem(item);
-        if (!leftover.isEmpty()) {
-            // 인벤토리 공간 부족 → 바닥에 드랍
-            leftover.values().forEach(stack -> player.getWorld().dropItemNaturally(player.getLocation(), stack));
-        }
+    /**
+     * 오프라인 플레이어에게 박스를 지급합니다. 박스는 우편함에 보관되며, 접속 시 지급됩니다.
+     *
+     * @param uuid 대상 플레이어 UUID
+     * @param id 박스 ID
+     * @param amount 수량
+     * @return 박스가 존재하면 true
+     */
+    public boolean giveBoxOffline(UUID uuid, String id, int amount) {
+        BoxData data = getBox(id);
+        if (data == null) return false;
 
+        RandomBox.getInstance().getMailbox().store(uuid, createTickets(data, amount));
         return true;
     }
 
-    public void reload() {
-        FileConfiguration boxConfig =
-                YamlConfiguration.loadConfiguration(new File(RandomBox.getInstance().getDataFolder(), "box.yml"));
-        load(boxConfig);
-        MessageUtil.reload();
+    /**
+     * 파일 하나의 파싱 결과
+     *
+     * @param source 데이터 폴더 기준 파일 경로
+     * @param content 파싱한 파일 내용 (읽지 못했으면 null)
+     * @param boxes 파싱된 박스 초안
+     * @param errors 파일 내 오류 목록
+     * @param reused 이전 레지스트리에서 재사용한 박스 수
+     */
+    private record FileResult(String source, byte[] content, List<BoxData> boxes, List<String> errors, int reused) {
+    }
+
+    /**
+     * 박스 설정 빌드 결과
+     *
+     * @param registry 새 레지스트리
+     * @param hash 파싱한 내용의 캐시 키 ({@link BoxSnapshot#hash(List, List, byte[])}, 오류가 있으면 null)
+     */
+    private record Built(BoxRegistry registry, byte[] hash) {
+    }
+
+    /**
+     * 박스별 티켓 원본
+     *
+     * @param box 원본을 만든 박스 데이터 (리로드로 교체되었는지 확인용)
+     * @param item 티켓 원본 (수정 금지)
+     */
+    private record Prototype(BoxData box, ItemStack item) {
     }
+
+    /**
+     * @return 대소문자 구분 없이 정렬된 전체 박스 ID 목록 (수정 불가, 복사하지 않음)
+     */
     public List<String> getAllBoxIds() {
-        return new ArrayList<>(boxMap.keySet());
+        return registry.get().sortedIds();
+    }
+
+    /**
+     * 접두어로 시작하는 박스 ID를 찾습니다. (대소문자 무시, 탭 완성용)
+     *
+     * @param prefix 접두어
+     * @return 일치하는 박스 ID 목록 (정렬됨, 수정 불가)
+     */
+    public List<String> getBoxIdsStartingWith(String prefix) {
+        return registry.get().idsStartingWith(prefix);
     }
 
 }
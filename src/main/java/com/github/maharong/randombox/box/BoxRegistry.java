@@ -0,0 +1,106 @@
+package com.github.maharong.randombox.box;
+
+import com.github.maharong.randombox.pity.PityLayout;
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 한 번의 로딩으로 만들어진 박스 목록의 불변 스냅샷입니다.
+ * <p>
+ * 리로드는 새 레지스트리를 처음부터 끝까지 완성한 뒤 참조 하나만 교체하므로,
+ * 개봉 중인 코드는 항상 완전한 이전 세대 또는 완전한 새 세대 중 하나만 보게 됩니다.
+ *
+ * @param boxes ID → 박스 데이터 (box.yml 순서 유지, 수정 불가)
+ * @param byIndex 박스 인덱스 → 박스 데이터 (삭제된 박스 자리는 null)
+ * @param materials 박스 티켓에 쓰인 아이템 종류
+ * @param pityLayout 천장 카운터 슬롯 배치
+ * @param sortedIds 대소문자 구분 없이 정렬된 박스 ID 목록 (수정 불가)
+ * @param searchKeys sortedIds와 같은 순서의 소문자 ID (접두어 이진 탐색용)
+ */
+public record BoxRegistry(Map<String, BoxData> boxes, BoxData[] byIndex,
+                          Set<Material> materials, PityLayout pityLayout,
+                          List<String> sortedIds, String[] searchKeys) {
+
+    public static final BoxRegistry EMPTY = of(List.of(), 0, List.of());
+
+    /**
+     * 로딩된 박스 목록으로 레지스트리를 만듭니다.
+     *
+     * @param boxes 박스 목록
+     * @param capacity 인덱스 배열 크기 ({@link BoxIndex#capacity()})
+     * @param pityKeys 천장 카운터 슬롯 키 목록
+     * @return 새 레지스트리
+     */
+    public static BoxRegistry of(List<BoxData> boxes, int capacity, List<String> pityKeys) {
+        Map<String, BoxData> map = new LinkedHashMap<>();
+        BoxData[] byIndex = new BoxData[capacity];
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        for (BoxData data : boxes) {
+            map.put(data.id(), data);
+            byIndex[data.index()] = data;
+            materials.add(data.lootBox().material());
+        }
+        // 소문자 기준으로 정렬해 두고 접두어 검색은 이진 탐색으로 처리
+        String[] ids = map.keySet().toArray(new String[0]);
+        Arrays.sort(ids, Comparator.comparing((String id) -> id.toLowerCase(Locale.ROOT)).thenComparing(Comparator.naturalOrder()));
+        String[] searchKeys = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            searchKeys[i] = ids[i].toLowerCase(Locale.ROOT);
+        }
+
+        return new BoxRegistry(Collections.unmodifiableMap(map), byIndex,
+                Collections.unmodifiableSet(materials), new PityLayout(pityKeys),
+                Collections.unmodifiableList(Arrays.asList(ids)), searchKeys);
+    }
+
+    /**
+     * 대소문자 구분 없이 접두어가 일치하는 박스 ID를 찾습니다.
+     * 결과는 정렬된 ID 배열의 구간을 그대로 보여주는 읽기 전용 목록이므로 ID를 복사하지 않습니다.
+     *
+     * @param prefix 접두어
+     * @return 일치하는 박스 ID 목록 (정렬됨, 수정 불가)
+     */
+    public List<String> idsStartingWith(String prefix) {
+        if (prefix.isEmpty()) return sortedIds;
+
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int from = lowerBound(key);
+        int to = from;
+        while (to < searchKeys.length && searchKeys[to].startsWith(key)) {
+            to++;
+        }
+        return sortedIds.subList(from, to);
+    }
+
+    // key 이상인 첫 위치
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = searchKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (searchKeys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param index 박스 인덱스
+     * @return 해당 박스 데이터, 없으면 null
+     */
+    public BoxData get(int index) {
+        return index >= 0 && index < byIndex.length ? byIndex[index] : null;
+    }
+}
@@ -0,0 +1,349 @@
+package com.github.maharong.randombox.box;
+
+import com.github.maharong.randombox.RandomBox;
+import com.github.maharong.randombox.reward.AliasTable;
+import com.github.maharong.randombox.reward.BroadcastReward;
+import com.github.maharong.randombox.reward.CommandReward;
+import com.github.maharong.randombox.reward.ExpReward;
+import com.github.maharong.randombox.reward.ItemReward;
+import com.github.maharong.randombox.reward.MessageReward;
+import com.github.maharong.randombox.reward.MoneyReward;
+import com.github.maharong.randombox.reward.Reward;
+import com.github.maharong.randombox.reward.RewardGroup;
+import com.github.maharong.randombox.reward.RewardType;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.enchantments.Enchantment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 파싱이 끝난 박스 목록을 이진 파일(box-cache.bin)로 저장하고 다시 읽어 들입니다.
+ * <p>
+ * 파일에는 원본 설정 파일들의 SHA-256 해시가 함께 기록되며, 서버 시작 시 해시가 일치하면
+ * YAML 파싱 없이 메모리 매핑으로 바로 읽어 들입니다. 해시가 다르거나 읽기에 실패하면 null을 반환하고,
+ * 호출 측은 전체 파싱으로 되돌아갑니다.
+ */
+public final class BoxSnapshot {
+
+    private static final int MAGIC = 0x52425358; // "RBSX"
+    private static final int FORMAT_VERSION = 1;
+
+    private BoxSnapshot() {
+    }
+
+    /**
+     * 디스크에 있는 원본 파일들의 현재 내용으로 캐시 키를 만듭니다. (캐시를 읽을 때 사용)
+     *
+     * @param sources 박스 설정 파일 목록 (순서 포함)
+     * @param indexFile box-index.yml
+     * @return SHA-256 해시
+     * @throws IOException 파일을 읽을 수 없는 경우
+     */
+    public static byte[] hash(List<File> sources, File indexFile) throws IOException {
+        List<byte[]> contents = new ArrayList<>(sources.size());
+        for (File file : sources) {
+            contents.add(Files.readAllBytes(file.toPath()));
+        }
+        return hash(sources, contents, indexFile.isFile() ? Files.readAllBytes(indexFile.toPath()) : null);
+    }
+
+    /**
+     * 파싱에 사용한 내용 그대로 캐시 키를 만듭니다.
+     * 파일 경로와 내용, 박스 인덱스 파일, 플러그인 버전, 캐시 형식 버전이 모두 포함됩니다.
+     * 파싱 이후 파일이 바뀌어도 캐시가 그 내용으로 잘못 기록되지 않도록, 저장할 때는 이 메서드를 사용합니다.
+     *
+     * @param sources 박스 설정 파일 목록 (순서 포함)
+     * @param contents 파일별로 파싱한 내용 (sources와 같은 순서)
+     * @param indexContents 저장될 box-index.yml 내용 (없으면 null)
+     * @return SHA-256 해시
+     */
+    public static byte[] hash(List<File> sources, List<byte[]> contents, byte[] indexContents) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, "v" + FORMAT_VERSION + "/" + RandomBox.getInstance().getPluginMeta().getVersion());
+        for (int i = 0; i < sources.size(); i++) {
+            update(digest, sources.get(i).getPath());
+            digest.update(contents.get(i));
+        }
+        if (indexContents != null) {
+            update(digest, "box-index.yml");
+            digest.update(indexContents);
+        }
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /**
+     * 캐시 파일을 읽습니다.
+     *
+     * @param file 캐시 파일
+     * @param hash 현재 원본 파일들의 해시
+     * @return 캐시된 박스 목록과 전체 파싱 소요 시간, 캐시가 없거나 맞지 않으면 null
+     */
+    public static Loaded read(File file, byte[] hash) {
+        if (!file.isFile()) return null;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) return null;
+            byte[] stored = new byte[hash.length];
+            in.get(stored);
+            if (!Arrays.equals(stored, hash)) return null;
+
+            long parseNanos = in.getLong();
+            int count = in.getInt();
+            List<BoxData> boxes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                boxes.add(readBox(in));
+            }
+            return new Loaded(boxes, parseNanos);
+        } catch (Exception e) {
+            Bukkit.getLogger().warning("[RandomBox] 박스 캐시를 읽지 못해 전체 파싱합니다: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * 박스 목록을 캐시 파일에 기록합니다. 임시 파일에 쓴 뒤 교체하므로 중간에 실패해도 기존 캐시가 깨지지 않습니다.
+     *
+     * @param file 캐시 파일
+     * @param hash 파싱에 사용한 원본 내용의 해시 ({@link #hash(List, List, byte[])})
+     * @param boxes 박스 목록
+     * @param parseNanos 전체 파싱에 걸린 시간 (시작 로그 비교용)
+     */
+    public static void write(File file, byte[] hash, List<BoxData> boxes, long parseNanos) {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.write(hash);
+                out.writeLong(parseNanos);
+                out.writeInt(boxes.size());
+                for (BoxData box : boxes) {
+                    writeBox(out, box);
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            Bukkit.getLogger().warning("[RandomBox] 박스 캐시 저장 실패: " + e.getMessage());
+            temp.delete();
+        }
+    }
+
+    /**
+     * 캐시에서 읽은 결과
+     *
+     * @param boxes 박스 목록 (저장 당시 순서)
+     * @param parseNanos 캐시를 만들 때 전체 파싱에 걸린 시간
+     */
+    public record Loaded(List<BoxData> boxes, long parseNanos) {
+    }
+
+    // ---- 쓰기 ----
+
+    private static void writeBox(DataOutputStream out, BoxData box) throws IOException {
+        writeString(out, box.id());
+        out.writeInt(box.index());
+        out.writeInt(box.generation());
+        writeString(out, box.fingerprint());
+
+        BoxData.LootBox lootBox = box.lootBox();
+        writeString(out, lootBox.material().name());
+        writeString(out, lootBox.name());
+        writeStrings(out, lootBox.lore());
+        out.writeBoolean(lootBox.shiny());
+
+        writeGroups(out, box.rewards());
+        writeGroups(out, box.defaultRewards());
+        out.writeInt(box.pityGroups().length);
+        for (int group : box.pityGroups()) {
+            out.writeInt(group);
+        }
+        out.writeInt(box.pityBase());
+    }
+
+    private static void writeGroups(DataOutputStream out, List<RewardGroup> groups) throws IOException {
+        out.writeInt(groups.size());
+        for (RewardGroup group : groups) {
+            out.writeDouble(group.chance());
+            out.writeInt(group.pity());
+            writeRewards(out, group.rewards());
+            writeRewards(out, group.defaultRewards());
+        }
+    }
+
+    private static void writeRewards(DataOutputStream out, List<Reward> rewards) throws IOException {
+        if (rewards == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(rewards.size());
+        for (Reward reward : rewards) {
+            out.writeByte(reward.type().ordinal());
+            switch (reward) {
+                case ItemReward item -> {
+                    writeString(out, item.material().name());
+                    out.writeInt(item.amount());
+                    writeString(out, item.name());
+                    writeStrings(out, item.lore());
+                    out.writeBoolean(item.shiny());
+                    out.writeInt(item.enchants().size());
+                    for (Map.Entry<Enchantment, Integer> entry : item.enchants().entrySet()) {
+                        writeString(out, entry.getKey().getKey().toString());
+                        out.writeInt(entry.getValue());
+                    }
+                }
+                case MoneyReward money -> out.writeDouble(money.amount());
+                case ExpReward exp -> out.writeInt(exp.amount());
+                case CommandReward command -> writeString(out, command.command());
+                case BroadcastReward broadcast -> writeString(out, broadcast.text());
+                case MessageReward message -> writeString(out, message.text());
+            }
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ---- 읽기 ----
+
+    private static BoxData readBox(ByteBuffer in) {
+        String id = readString(in);
+        int index = in.getInt();
+        int generation = in.getInt();
+        String fingerprint = readString(in);
+
+        Material material = material(readString(in));
+        String name = readString(in);
+        List<String> lore = readStrings(in);
+        boolean shiny = in.get() != 0;
+        BoxData.LootBox lootBox = new BoxData.LootBox(material, name, lore, shiny);
+
+        List<RewardGroup> rewards = readGroups(in);
+        List<RewardGroup> defaultRewards = readGroups(in);
+        int[] pityGroups = new int[in.getInt()];
+        for (int i = 0; i < pityGroups.length; i++) {
+            pityGroups[i] = in.getInt();
+        }
+        int pityBase = in.getInt();
+
+        return new BoxData(id, index, generation, fingerprint, lootBox, rewards, defaultRewards,
+                AliasTable.of(rewards), pityGroups, pityBase);
+    }
+
+    private static List<RewardGroup> readGroups(ByteBuffer in) {
+        int count = in.getInt();
+        List<RewardGroup> groups = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double chance = in.getDouble();
+            int pity = in.getInt();
+            groups.add(new RewardGroup(chance, readRewards(in), readRewards(in), pity));
+        }
+        return groups;
+    }
+
+    private static List<Reward> readRewards(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) return null;
+
+        boolean fastPath = RandomBox.getInstance().getConfig().getBoolean("command.native-fast-path", true);
+        List<Reward> rewards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RewardType type = RewardType.values()[in.get()];
+            rewards.add(switch (type) {
+                case ITEM -> {
+                    Material material = material(readString(in));
+                    int amount = in.getInt();
+                    String name = readString(in);
+                    List<String> lore = readStrings(in);
+                    boolean shiny = in.get() != 0;
+                    int enchantCount = in.getInt();
+                    Map<Enchantment, Integer> enchants = new LinkedHashMap<>();
+                    for (int e = 0; e < enchantCount; e++) {
+                        String key = readString(in);
+                        Enchantment enchant = Registry.ENCHANTMENT.get(NamespacedKey.fromString(key));
+                        if (enchant == null) throw new IllegalStateException("알 수 없는 인챈트: " + key);
+                        enchants.put(enchant, in.getInt());
+                    }
+                    yield new ItemReward(material, amount, name, lore, shiny, enchants);
+                }
+                case MONEY -> new MoneyReward(in.getDouble());
+                case EXP -> new ExpReward(in.getInt());
+                case COMMAND -> new CommandReward(readString(in), fastPath);
+                case BROADCAST -> new BroadcastReward(readString(in));
+                case MESSAGE -> new MessageReward(readString(in));
+            });
+        }
+        return rewards;
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) return null;
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Material material(String name) {
+        Material material = Material.getMaterial(name);
+        if (material == null) throw new IllegalStateException("알 수 없는 아이템 종류: " + name);
+        return material;
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.maharong.randombox.box;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플러그인 폴더의 box.yml과 boxes 폴더의 변경을 감지해 자동으로 다시 불러오는 감시자입니다.
+ * <p>
+ * 편집기는 저장 한 번에 여러 개의 수정 이벤트를 남기므로, 마지막 이벤트 이후 일정 시간 동안
+ * 추가 변경이 없을 때 한 번만 리로드합니다. 리로드는 변경된 박스만 다시 파싱하며 message.yml은 건드리지 않습니다.
+ */
+public class BoxWatcher implements Runnable {
+
+    private static final String BOX_FILE = "box.yml";
+
+    private final Plugin plugin;
+    private final BoxManager boxManager;
+    private final long debounceNanos;
+    private WatchService watchService;
+    private Path boxesDir;
+    private Thread thread;
+
+    /**
+     * @param plugin 플러그인 (데이터 폴더를 감시)
+     * @param boxManager 리로드할 박스 관리자
+     * @param debounceMillis 마지막 변경 이후 리로드까지 기다릴 시간 (ms)
+     */
+    public BoxWatcher(Plugin plugin, BoxManager boxManager, long debounceMillis) {
+        this.plugin = plugin;
+        this.boxManager = boxManager;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(50L, debounceMillis));
+    }
+
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            plugin.getDataFolder().toPath().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            // boxes 폴더는 파일 삭제도 반영 (하위 폴더는 감시하지 않음)
+            boxesDir = plugin.getDataFolder().toPath().resolve(BoxManager.BOXES_DIR);
+            if (Files.isDirectory(boxesDir)) {
+                boxesDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            Bukkit.getLogger().warning("[RandomBox] box.yml 감시를 시작하지 못했습니다: " + e.getMessage());
+            return;
+        }
+        thread = new Thread(this, "RandomBox-BoxWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        Bukkit.getLogger().info("[RandomBox] box.yml 변경 감시를 시작합니다.");
+    }
+
+    @Override
+    public void run() {
+        long dueAt = 0L;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key;
+                if (dueAt == 0L) {
+                    key = watchService.take();
+                } else {
+                    key = watchService.poll(Math.max(0L, dueAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+
+                if (key != null) {
+                    boolean inBoxesDir = boxesDir.equals(key.watchable());
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (!(event.context() instanceof Path path)) continue;
+                        String name = path.getFileName().toString();
+                        if (inBoxesDir ? name.endsWith(".yml") : name.equals(BOX_FILE)) {
+                            dueAt = System.nanoTime() + debounceNanos;
+                        }
+                    }
+                    key.reset();
+                }
+
+                // 마지막 변경 이후 조용해지면 한 번만 리로드
+                if (dueAt != 0L && System.nanoTime() - dueAt >= 0) {
+                    dueAt = 0L;
+                    if (!plugin.isEnabled()) return;
+                    Bukkit.getScheduler().runTask(plugin, this::apply);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 종료
+        }
+    }
+
+    private void apply() {
+        Bukkit.getLogger().info("[RandomBox] box.yml 변경 감지 - 변경된 박스를 다시 불러옵니다.");
+        boxManager.reloadBoxes(true);
+    }
+
+    public void close() {
+        if (thread == null) return;
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        thread = null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.maharong.randombox.command;
+
+import com.github.maharong.randombox.box.BoxData;
+import com.github.maharong.randombox.mailbox.Mailbox;
+import com.github.maharong.randombox.util.MessageUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 여러 플레이어에게 박스를 한꺼번에 지급하는 작업입니다. (/randombox giveall)
+ * <p>
+ * 시작 시점의 접속자 목록을 기준으로 한 틱에 정해진 인원과 티켓 묶음 수 안에서만 처리하며,
+ * 티켓은 미리 한 번만 만들어 두고 플레이어마다 복제해서 지급합니다.
+ * 진행 상황은 일정 주기로, 최종 결과는 끝날 때 한 번만 명령어 실행자에게 알립니다.
+ */
+public class MassGiveJob implements Runnable {
+
+    private static final long PROGRESS_INTERVAL_TICKS = 20L;
+
+    private final CommandSender sender;
+    private final BoxData box;
+    private final Predicate<Player> selector;
+    private final ItemStack[] stacks;
+    private final Mailbox mailbox;
+    private final int perTick;
+    private final List<Player> targets;
+    private int cursor;
+    private int given;
+    private int skipped;
+    private long ticks;
+    private long startNanos;
+    private BukkitTask task;
+
+    /**
+     * @param sender 결과를 받을 명령어 실행자
+     * @param box 지급할 박스
+     * @param stacks 한 명에게 지급할 티켓 묶음 (복제해서 사용)
+     * @param selector 지급 대상 조건
+     * @param mailbox 인벤토리가 가득 찬 경우 보관할 우편함
+     * @param perTick 한 틱에 처리할 최대 인원
+     * @param stacksPerTick 한 틱에 지급할 최대 티켓 묶음 수 (한 명에게 줄 묶음이 이보다 많아도 틱당 한 명은 처리)
+     */
+    public MassGiveJob(CommandSender sender, BoxData box, List<ItemStack> stacks, Predicate<Player> selector,
+                       Mailbox mailbox, int perTick, int stacksPerTick) {
+        this.sender = sender;
+        this.box = box;
+        this.stacks = stacks.toArray(new ItemStack[0]);
+        this.selector = selector;
+        this.mailbox = mailbox;
+        this.perTick = Math.max(1, Math.min(perTick, stacksPerTick / Math.max(1, this.stacks.length)));
+        this.targets = new ArrayList<>(Bukkit.getOnlinePlayers());
+    }
+
+    /**
+     * 대상 선택자를 해석합니다.
+     * <ul>
+     *     <li>{@code all}: 모든 접속자</li>
+     *     <li>{@code perm:<권한>}: 해당 권한을 가진 접속자</li>
+     *     <li>{@code world:<월드>}: 해당 월드에 있는 접속자</li>
+     * </ul>
+     *
+     * @param input 선택자 문자열
+     * @return 대상 조건, 잘못된 선택자면 null
+     */
+    public static Predicate<Player> parseSelector(String input) {
+        String lower = input.toLowerCase();
+        if (lower.equals("all")) {
+            return player -> true;
+        }
+        if (lower.startsWith("perm:") && input.length() > 5) {
+            String permission = input.substring(5);
+            return player -> player.hasPermission(permission);
+        }
+        if (lower.startsWith("world:") && input.length() > 6) {
+            World world = Bukkit.getWorld(input.substring(6));
+            if (world == null) return null;
+            return player -> player.getWorld().equals(world);
+        }
+        return null;
+    }
+
+    public void start(Plugin plugin) {
+        startNanos = System.nanoTime();
+        MessageUtil.send(sender, "box.giveall.start", "{box}", box.id(), "{count}", String.valueOf(targets.size()));
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this, 1L, 1L);
+    }
+
+    @Override
+    public void run() {
+        int end = Math.min(cursor + perTick, targets.size());
+        for (; cursor < end; cursor++) {
+            Player player = targets.get(cursor);
+            // 시작 이후 접속을 종료했거나 조건에 맞지 않는 플레이어는 건너뜀
+            if (!player.isOnline() || !selector.test(player)) {
+                skipped++;
+                continue;
+            }
+            give(player);
+            given++;
+        }
+        ticks++;
+
+        if (cursor >= targets.size()) {
+            task.cancel();
+            long elapsed = (System.nanoTime() - startNanos) / 1_000_000L;
+            MessageUtil.send(sender, "box.giveall.done", "{box}", box.id(), "{count}", String.valueOf(given),
+                    "{skipped}", String.valueOf(skipped), "{time}", String.valueOf(elapsed));
+        } else if (ticks % PROGRESS_INTERVAL_TICKS == 0) {
+            MessageUtil.send(sender, "box.giveall.progress", "{done}", String.valueOf(cursor),
+                    "{total}", String.valueOf(targets.size()));
+        }
+    }
+
+    // addItem은 전달한 아이템의 수량을 바꿀 수 있으므로 매번 복제해서 지급
+    private void give(Player player) {
+        ItemStack[] items = new ItemStack[stacks.length];
+        for (int i = 0; i < stacks.length; i++) {
+            items[i] = stacks[i].clone();
+        }
+        mailbox.giveOrStore(player, items);
+        MessageUtil.send(player, "box.received", "{box}", box.id());
+    }
+}
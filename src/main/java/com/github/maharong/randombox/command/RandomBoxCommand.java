@@ -1,8 +1,19 @@
 package com.github.maharong.randombox.command;
 
+import com.github.maharong.randombox.RandomBox;
+import com.github.maharong.randombox.box.BoxData;
 import com.github.maharong.randombox.box.BoxManager;
+import com.github.maharong.randombox.random.PityHit;
+import com.github.maharong.randombox.random.SeededRandomProvider;
+import com.github.maharong.randombox.reward.DeliveryScheduler;
+import com.github.maharong.randombox.reward.DropSimulator;
+import com.github.maharong.randombox.reward.RewardGroup;
+import com.github.maharong.randombox.reward.RewardSelector;
 import com.github.maharong.randombox.util.MessageUtil;
+import com.github.maharong.randombox.util.VaultUtil;
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -13,10 +24,12 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * /randombox 명령어 처리 클래스.
- * 서브 명령어: list, give, reload
+ * 서브 명령어: list, give, giveall, reload, replay, simulate, status, claim
+ * claim 외의 서브 명령어는 randombox.admin 권한이 필요하다.
  */
 public class RandomBoxCommand implements CommandExecutor, TabCompleter {
 
@@ -31,6 +44,16 @@ public class RandomBoxCommand implements CommandExecutor, TabCompleter {
      */
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
+        boolean admin = sender.hasPermission("randombox.admin");
+        if (args.length > 0 && args[0].equalsIgnoreCase("claim")) {
+            handleClaim(sender);
+            return true;
+        }
+        if (!admin) {
+            MessageUtil.send(sender, "command.no-permission");
+            return true;
+        }
+
         if (args.length == 0) {
             // 인수 없을 경우 도움말 출력
             sendUsage(sender);
@@ -41,7 +64,11 @@ public class RandomBoxCommand implements CommandExecutor, TabCompleter {
         switch (sub) {
             case "list" -> handleList(sender, args);
             case "give" -> handleGive(sender, args);
+            case "giveall" -> handleGiveAll(sender, args);
             case "reload" -> handleReload(sender);
+            case "replay" -> handleReplay(sender, args);
+            case "simulate" -> handleSimulate(sender, args);
+            case "status" -> handleStatus(sender);
             default -> MessageUtil.send(sender, "invalid.arguments");
         }
         return true;
@@ -57,16 +84,27 @@ public class RandomBoxCommand implements CommandExecutor, TabCompleter {
     }
 
     /**
-     * /randombox list [id] 처리
-     * - 인수 없음: 전체 박스 목록 출력
+     * /randombox list [페이지|id] 처리
+     * - 인수 없음: 박스 목록 첫 페이지 출력
+     * - 숫자: 해당 페이지 출력 (같은 이름의 박스가 있으면 박스 정보 우선)
      * - id 있음: 해당 박스 정보 출력
      */
     private void handleList(CommandSender sender, String[] args) {
+        int pageSize = RandomBox.getInstance().getConfig().getInt("list.page-size", 10);
         if (args.length == 1) {
-            boxManager.sendBoxList(sender);
-        } else {
-            boxManager.sendBoxInfo(sender, args[1]);
+            boxManager.sendBoxList(sender, 1, pageSize);
+            return;
         }
+
+        if (boxManager.getBox(args[1]) == null) {
+            try {
+                boxManager.sendBoxList(sender, Integer.parseInt(args[1]), pageSize);
+                return;
+            } catch (NumberFormatException ignored) {
+                // 숫자가 아니면 박스 ID로 취급
+            }
+        }
+        boxManager.sendBoxInfo(sender, args[1]);
     }
 
     /**
@@ -79,11 +117,6 @@ public class RandomBoxCommand implements CommandExecutor, TabCompleter {
         }
 
         Player target = Bukkit.getPlayerExact(args[1]);
-        if (target == null) {
-            MessageUtil.send(sender, "box.not-found", "{id}", args[2]);
-            return;
-        }
-
         String boxId = args[2];
         int amount = 1;
 
@@ -97,6 +130,30 @@ public class RandomBoxCommand implements CommandExecutor, TabCompleter {
             }
         }
 
+        if (amount <= 0) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+        if (amount > boxManager.getMaxGiveAmount()) {
+            MessageUtil.send(sender, "box.amount-limit", "{max}", String.valueOf(boxManager.getMaxGiveAmount()));
+            return;
+        }
+
+        // 오프라인 플레이어 → 우편함에 보관
+        if (target == null) {
+            OfflinePlayer offline = Bukkit.getOfflinePlayerIfCached(args[1]);
+            if (offline == null) {
+                MessageUtil.send(sender, "invalid.player", "{player}", args[1]);
+                return;
+            }
+            if (boxManager.giveBoxOffline(offline.getUniqueId(), boxId, amount)) {
+                MessageUtil.send(sender, "box.give-offline", "{target}", args[1], "{box}", boxId);
+            } else {
+                MessageUtil.send(sender, "box.not-found", "{id}", boxId);
+            }
+            return;
+        }
+
         // 박스 지급 시도
         if (boxManager.giveBox(target, boxId, amount)) {
             MessageUtil.send(sender, "box.give", "{target}", target.getName(), "{box}", boxId);
@@ -106,13 +163,209 @@ public class RandomBoxCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    /**
+     * /randombox giveall <all|perm:권한|world:월드> <박스ID> [수량] 처리
+     * 조건에 맞는 접속자 전원에게 여러 틱에 나눠 박스를 지급한다
+     */
+    private void handleGiveAll(CommandSender sender, String[] args) {
+        if (args.length < 3) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+
+        Predicate<Player> selector = MassGiveJob.parseSelector(args[1]);
+        if (selector == null) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+
+        BoxData box = boxManager.getBox(args[2]);
+        if (box == null) {
+            MessageUtil.send(sender, "box.not-found", "{id}", args[2]);
+            return;
+        }
+
+        int amount = 1;
+        if (args.length >= 4) {
+            try {
+                amount = Integer.parseInt(args[3]);
+            } catch (NumberFormatException e) {
+                MessageUtil.send(sender, "invalid.arguments");
+                return;
+            }
+        }
+        if (amount <= 0) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+        if (amount > boxManager.getMaxGiveAmount()) {
+            MessageUtil.send(sender, "box.amount-limit", "{max}", String.valueOf(boxManager.getMaxGiveAmount()));
+            return;
+        }
+
+        RandomBox plugin = RandomBox.getInstance();
+        new MassGiveJob(sender, box, boxManager.createTickets(box, amount), selector, plugin.getMailbox(),
+                plugin.getConfig().getInt("mass-give.players-per-tick", 20),
+                plugin.getConfig().getInt("mass-give.stacks-per-tick", 200)).start(plugin);
+    }
+
+    /**
+     * /randombox claim 처리
+     * 우편함에 보관된 아이템을 수령한다 (randombox.claim 권한)
+     */
+    private void handleClaim(CommandSender sender) {
+        if (!(sender instanceof Player player)) {
+            MessageUtil.send(sender, "command.not-player");
+            return;
+        }
+        if (!player.hasPermission("randombox.claim")) {
+            MessageUtil.send(sender, "command.no-permission");
+            return;
+        }
+        RandomBox.getInstance().getMailbox().claim(player, true);
+    }
+
     /**
      * /randombox reload 처리
-     * box.yml과 message.yml을 다시 불러온다
+     * box.yml과 message.yml을 다시 불러온다. box.yml에 오류가 있으면 기존 설정을 유지하고 오류 목록을 출력한다
      */
     private void handleReload(CommandSender sender) {
-        boxManager.reload();
-        MessageUtil.send(sender, "command.reload");
+        boxManager.reload().thenAccept(errors -> {
+            if (errors.isEmpty()) {
+                MessageUtil.send(sender, "command.reload");
+                return;
+            }
+            MessageUtil.send(sender, "command.reload-failed", "{count}", String.valueOf(errors.size()));
+            for (String error : errors) {
+                MessageUtil.send(sender, "command.reload-error", "{error}", error);
+            }
+        });
+    }
+
+    /**
+     * /randombox replay <박스ID> <시드> [추첨횟수] [천장기록] 처리
+     * rolls.log에 기록된 시드와 천장 기록으로 당시 추첨 결과를 재현한다
+     */
+    private void handleReplay(CommandSender sender, String[] args) {
+        if (args.length < 3) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+
+        BoxData box = boxManager.getBox(args[1]);
+        if (box == null) {
+            MessageUtil.send(sender, "box.not-found", "{id}", args[1]);
+            return;
+        }
+
+        long seed;
+        try {
+            seed = Long.parseLong(args[2]);
+        } catch (NumberFormatException e) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+
+        int draws = 1;
+        if (args.length >= 4) {
+            try {
+                draws = Integer.parseInt(args[3]);
+            } catch (NumberFormatException e) {
+                MessageUtil.send(sender, "invalid.arguments");
+                return;
+            }
+        }
+
+        int[] counts;
+        try {
+            List<PityHit> pityHits = args.length >= 5 ? PityHit.parse(args[4]) : List.of();
+            counts = RewardSelector.drawCounts(box, SeededRandomProvider.replay(seed), Math.max(1, draws), pityHits);
+        } catch (IllegalArgumentException e) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            MessageUtil.send(sender, "box.replay", "{id}", box.id(), "{seed}", String.valueOf(seed),
+                    "{group}", String.valueOf(i), "{count}", String.valueOf(counts[i]));
+        }
+    }
+
+    /**
+     * /randombox simulate <박스ID> <횟수> 처리
+     * 메인 스레드 밖에서 모의 추첨을 수행하고, 완료되면 메인 스레드에서 결과를 출력한다
+     */
+    private void handleSimulate(CommandSender sender, String[] args) {
+        if (args.length < 3) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+
+        BoxData box = boxManager.getBox(args[1]);
+        if (box == null) {
+            MessageUtil.send(sender, "box.not-found", "{id}", args[1]);
+            return;
+        }
+
+        long draws;
+        try {
+            draws = Long.parseLong(args[2]);
+        } catch (NumberFormatException e) {
+            MessageUtil.send(sender, "invalid.arguments");
+            return;
+        }
+        long maxDraws = RandomBox.getInstance().getConfig().getLong("simulate.max-draws", 10_000_000L);
+        if (draws <= 0 || draws > maxDraws) {
+            MessageUtil.send(sender, "box.simulate.limit", "{max}", String.valueOf(maxDraws));
+            return;
+        }
+
+        MessageUtil.send(sender, "box.simulate.start", "{id}", box.id(), "{count}", String.valueOf(draws));
+        DropSimulator.simulateAsync(box, draws).whenComplete((result, error) ->
+                Bukkit.getScheduler().runTask(RandomBox.getInstance(), () -> {
+                    if (error != null) {
+                        MessageUtil.send(sender, "plugin.error");
+                        Bukkit.getLogger().severe("[RandomBox] 모의 추첨 중 오류 발생: " + error.getMessage());
+                        return;
+                    }
+                    sendSimulationResult(sender, box, result);
+                }));
+    }
+
+    private void sendSimulationResult(CommandSender sender, BoxData box, DropSimulator.Result result) {
+        MessageUtil.send(sender, "box.simulate.header", "{id}", box.id(),
+                "{count}", String.valueOf(result.draws()), "{time}", String.valueOf(result.elapsedMillis()));
+
+        double total = box.sampler().totalWeight();
+        for (int i = 0; i < box.rewards().size(); i++) {
+            RewardGroup group = box.rewards().get(i);
+            double[] ci = result.confidence95(i);
+            MessageUtil.send(sender, "box.simulate.entry",
+                    "{group}", String.valueOf(i),
+                    "{expected}", percent(total > 0 ? group.chance() / total : 0.0),
+                    "{observed}", percent(result.observed(i)),
+                    "{low}", percent(ci[0]),
+                    "{high}", percent(ci[1]),
+                    "{hits}", String.valueOf(result.counts()[i]));
+        }
+    }
+
+    private static String percent(double ratio) {
+        return String.format("%.4f", ratio * 100.0);
+    }
+
+    /**
+     * /randombox status 처리
+     * 보상 지급, 명령어 실행, 입금 대기열의 길이를 출력한다
+     */
+    private void handleStatus(CommandSender sender) {
+        DeliveryScheduler scheduler = RandomBox.getInstance().getDeliveryScheduler();
+        MessageUtil.send(sender, "command.status.header");
+        MessageUtil.send(sender, "command.status.delivery",
+                "{count}", String.valueOf(scheduler.size()), "{players}", String.valueOf(scheduler.players()));
+        MessageUtil.send(sender, "command.status.command",
+                "{count}", String.valueOf(RandomBox.getInstance().getCommandDispatcher().size()));
+        MessageUtil.send(sender, "command.status.money", "{count}", String.valueOf(VaultUtil.pendingDeposits()));
     }
 
     /**
@@ -120,11 +373,26 @@ public class RandomBoxCommand implements CommandExecutor, TabCompleter {
      */
     @Override
     public List<String> onTabComplete(CommandSender sender, @NotNull Command command, @NotNull String alias, String[] args) {
-        if (!sender.hasPermission("randombox.admin")) return Collections.emptyList();
+        if (!sender.hasPermission("randombox.admin")) {
+            // 일반 플레이어: claim만 가능
+            if (args.length == 1 && sender.hasPermission("randombox.claim")) {
+                return partialMatch(args[0], List.of("claim"));
+            }
+            return Collections.emptyList();
+        }
 
-        // 첫 번째 인수: list, give, reload
+        // 첫 번째 인수: list, give, giveall, reload, replay, simulate, status, claim
         if (args.length == 1) {
-            return partialMatch(args[0], List.of("list", "give", "reload"));
+            return partialMatch(args[0], List.of("list", "give", "giveall", "reload", "replay", "simulate", "status", "claim"));
+        }
+
+        // 두 번째 인수: 대상 선택자 (giveall)
+        if (args.length == 2 && args[0].equalsIgnoreCase("giveall")) {
+            List<String> selectors = new ArrayList<>(List.of("all", "perm:"));
+            for (World world : Bukkit.getWorlds()) {
+                selectors.add("world:" + world.getName());
+            }
+            return partialMatch(args[1], selectors);
         }
 
         // 두 번째 인수: 플레이어 이름 (give)
@@ -135,12 +403,13 @@ public class RandomBoxCommand implements CommandExecutor, TabCompleter {
                     .toList();
         }
 
-        // 박스 ID 탭 완성: list [id], give <player> <id>
+        // 박스 ID 탭 완성: list [id], give <player> <id>, giveall <selector> <id>, replay <id>, simulate <id>
         if ((args.length == 2 && args[0].equalsIgnoreCase("list"))
-                || (args.length == 3 && args[0].equalsIgnoreCase("give"))) {
-            return boxManager.getAllBoxIds().stream()
-                    .filter(id -> id.toLowerCase().startsWith(args[args.length - 1].toLowerCase()))
-                    .toList();
+                || (args.length == 2 && args[0].equalsIgnoreCase("replay"))
+                || (args.length == 2 && args[0].equalsIgnoreCase("simulate"))
+                || (args.length == 3 && args[0].equalsIgnoreCase("give"))
+                || (args.length == 3 && args[0].equalsIgnoreCase("giveall"))) {
+            return boxManager.getBoxIdsStartingWith(args[args.length - 1]);
         }
 
         return Collections.emptyList();
@@ -2,8 +2,10 @@ package com.github.maharong.randombox.listener;
 
 import com.github.maharong.randombox.RandomBox;
 import com.github.maharong.randombox.box.BoxData;
+import com.github.maharong.randombox.reward.RewardBundle;
 import com.github.maharong.randombox.reward.RewardGroup;
 import com.github.maharong.randombox.reward.RewardSelector;
+import com.github.maharong.randombox.util.MessageUtil;
 import com.github.maharong.randombox.util.NBTUtil;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -13,15 +15,28 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.List;
 
 public class BoxUseListener implements Listener {
 
     private final RandomBox plugin;
+    private final boolean bulkOpenEnabled;
+    private final int bulkOpenMax;
+    private final OpenRateLimiter rateLimiter;
 
     public BoxUseListener(RandomBox plugin) {
         this.plugin = plugin;
+        this.bulkOpenEnabled = plugin.getConfig().getBoolean("bulk-open.enabled", true);
+        this.bulkOpenMax = Math.max(1, plugin.getConfig().getInt("bulk-open.max", 64));
+        this.rateLimiter = new OpenRateLimiter(
+                plugin.getConfig().getBoolean("rate-limit.enabled", true),
+                plugin.getConfig().getDouble("rate-limit.per-second", 4.0),
+                plugin.getConfig().getInt("rate-limit.burst", 4),
+                plugin.getConfig().getBoolean("rate-limit.per-box", false),
+                plugin.getConfig().getLong("rate-limit.message-interval-ms", 1000L));
+        this.rateLimiter.start(plugin, Math.max(20L, plugin.getConfig().getLong("rate-limit.sweep-interval", 60L) * 20L));
     }
 
     @EventHandler
@@ -32,33 +47,72 @@ public class BoxUseListener implements Listener {
         if (event.getAction() != Action.RIGHT_CLICK_AIR && event.getAction() != Action.RIGHT_CLICK_BLOCK)
             return;
 
-        Player player = event.getPlayer();
         ItemStack item = event.getItem();
         if (item == null || item.getType() == Material.AIR) return;
 
-        // NBT로부터 box-id 추출
-        String boxId = NBTUtil.getBoxId(item);
-        if (boxId == null) return;
+        // 박스 티켓으로 쓰이지 않는 아이템은 메타를 읽지 않고 바로 무시
+        if (!plugin.getBoxManager().isBoxMaterial(item.getType()) || !item.hasItemMeta()) return;
+
+        Player player = event.getPlayer();
 
-        // box.yml에 정의된 박스 확인
-        BoxData box = plugin.getBoxManager().getBox(boxId);
+        // 티켓 정보로 박스 조회 (새 형식은 인덱스, 이전 형식은 box-id 문자열)
+        ItemMeta meta = item.getItemMeta();
+        int[] ticket = NBTUtil.getTicket(meta);
+        BoxData box;
+        if (ticket != null) {
+            box = plugin.getBoxManager().getBox(ticket[NBTUtil.TICKET_INDEX]);
+        } else {
+            String boxId = NBTUtil.getBoxId(meta);
+            if (boxId == null) return;
+            box = plugin.getBoxManager().getBox(boxId);
+        }
         if (box == null) return;
 
         // 이벤트 중복 실행 방지
         event.setCancelled(true);
 
-        // 수량 1개 이하 → 제거, 그 외엔 1 감소
+        // 매크로 등으로 너무 빠르게 여는 경우 차단
+        OpenRateLimiter.Result limit = rateLimiter.tryAcquire(player.getUniqueId(), box.id());
+        if (limit != OpenRateLimiter.Result.ALLOWED) {
+            if (limit == OpenRateLimiter.Result.DENIED) {
+                MessageUtil.send(player, "box.rate-limited");
+            }
+            return;
+        }
+
+        // 이전 형식이거나 박스 설정이 바뀌기 전에 만들어진 티켓은 현재 설정의 티켓으로 교체
+        if (ticket == null || ticket[NBTUtil.TICKET_GENERATION] != box.generation()) {
+            item = plugin.getBoxManager().createTicket(box, item.getAmount());
+        }
+
+        // 웅크린 상태면 묶음 전체를 한 번에 개봉
         int amount = item.getAmount();
-        if (amount <= 1) {
+        int opens = (bulkOpenEnabled && player.isSneaking()) ? Math.min(amount, bulkOpenMax) : 1;
+
+        // 개봉 수량만큼 제거
+        if (amount <= opens) {
             player.getInventory().setItemInMainHand(null);
         } else {
-            item.setAmount(amount - 1);
+            item.setAmount(amount - opens);
             player.getInventory().setItemInMainHand(item);
         }
 
-        // 보상 그룹 추첨
-        List<RewardGroup> groups = box.rewards();
-        RewardGroup drawn = RewardSelector.draw(groups, player);
+        if (opens > 1) {
+            openBulk(player, box, opens);
+            return;
+        }
+
+        // 보상 그룹 추첨 (연출을 사용해도 결과는 여기서 정해짐)
+        int index = RewardSelector.drawIndex(box, player);
+        RewardGroup drawn = index < 0 ? null : box.rewards().get(index);
+        if (plugin.getAnimationEngine().play(player, box, index, () -> deliver(player, box, drawn))) return;
+        deliver(player, box, drawn);
+    }
+
+    /**
+     * 추첨된 보상 그룹을 지급하고, 꽝이면 기본 보상을 지급합니다.
+     */
+    private void deliver(Player player, BoxData box, RewardGroup drawn) {
         if (drawn != null) {
             drawn.giveAll(player); // 보상 지급
         } else {
@@ -71,4 +125,30 @@ public class BoxUseListener implements Listener {
             }
         }
     }
+
+    /**
+     * 여러 개의 박스를 한 번에 추첨하고, 결과를 합쳐 한 번에 지급합니다.
+     */
+    private void openBulk(Player player, BoxData box, int opens) {
+        int[] counts = RewardSelector.drawMany(box, player, opens);
+        List<RewardGroup> groups = box.rewards();
+
+        RewardBundle bundle = new RewardBundle();
+        int missed = opens;
+        for (int i = 0; i < counts.length; i++) {
+            bundle.add(groups.get(i), counts[i]);
+            missed -= counts[i];
+        }
+
+        // 꽝 보상
+        List<RewardGroup> defaults = box.defaultRewards();
+        if (missed > 0 && defaults != null) {
+            for (RewardGroup fallback : defaults) {
+                bundle.add(fallback, missed);
+            }
+        }
+
+        plugin.getDeliveryScheduler().submit(player, bundle::deliver, bundle::deliverOffline);
+        MessageUtil.send(player, "box.bulk-opened", "{box}", box.displayName(), "{count}", String.valueOf(opens));
+    }
 }
@@ -0,0 +1,125 @@
+package com.github.maharong.randombox.listener;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 박스 개봉 횟수를 제한하는 플레이어별 토큰 버킷입니다.
+ * <p>
+ * 버킷마다 "다음 토큰이 채워지는 이론상 시각(GCRA)" 하나만 {@link AtomicLong}에 저장하므로,
+ * 개봉 판정은 CAS 한 번으로 끝나며 이벤트마다 객체를 만들지 않습니다.
+ * 토큰이 가득 찬 채로 오래 쓰이지 않은 버킷은 주기적으로 정리합니다.
+ */
+public class OpenRateLimiter {
+
+    /**
+     * 개봉 판정 결과
+     */
+    public enum Result {
+        /** 개봉 허용 */
+        ALLOWED,
+        /** 거부 (안내 메시지 출력) */
+        DENIED,
+        /** 거부 (최근에 안내했으므로 메시지 생략) */
+        DENIED_SILENT
+    }
+
+    private final boolean enabled;
+    private final boolean perBox;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long notifyNanos;
+    private final Map<UUID, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param enabled false이면 모든 개봉을 허용합니다.
+     * @param perSecond 초당 채워지는 토큰 수
+     * @param burst 한 번에 연속으로 열 수 있는 최대 횟수
+     * @param perBox true이면 박스 종류마다 별도의 버킷을 사용합니다.
+     * @param notifyMillis 거부 안내 메시지를 다시 보내기까지의 최소 간격 (ms)
+     */
+    public OpenRateLimiter(boolean enabled, double perSecond, int burst, boolean perBox, long notifyMillis) {
+        this.enabled = enabled && perSecond > 0;
+        this.perBox = perBox;
+        this.intervalNanos = this.enabled ? (long) (TimeUnit.SECONDS.toNanos(1) / perSecond) : 0L;
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.notifyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, notifyMillis));
+    }
+
+    /**
+     * 만료된 버킷을 정리하는 작업을 등록합니다.
+     *
+     * @param plugin 작업을 등록할 플러그인
+     * @param intervalTicks 정리 주기 (틱)
+     */
+    public void start(Plugin plugin, long intervalTicks) {
+        if (!enabled) return;
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::sweep, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * 토큰 하나를 소모해 개봉 가능 여부를 판정합니다.
+     *
+     * @param uuid 플레이어 UUID
+     * @param boxId 박스 ID (박스별 제한을 사용할 때만 의미가 있음)
+     * @return 판정 결과
+     */
+    public Result tryAcquire(UUID uuid, String boxId) {
+        if (!enabled) return Result.ALLOWED;
+
+        Bucket bucket = buckets.computeIfAbsent(uuid, k -> new Bucket());
+        AtomicLong tat = perBox ? bucket.boxes.computeIfAbsent(boxId, k -> new AtomicLong(Long.MIN_VALUE)) : bucket.tat;
+        long now = System.nanoTime();
+
+        while (true) {
+            long current = tat.get();
+            long base = (current == Long.MIN_VALUE || current - now < 0) ? now : current;
+            if (base - now > toleranceNanos) {
+                return notifyAllowed(bucket, now) ? Result.DENIED : Result.DENIED_SILENT;
+            }
+            if (tat.compareAndSet(current, base + intervalNanos)) {
+                return Result.ALLOWED;
+            }
+        }
+    }
+
+    /**
+     * @return 현재 추적 중인 플레이어 수
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    // 안내 메시지는 notifyNanos 간격마다 한 번만 허용
+    private boolean notifyAllowed(Bucket bucket, long now) {
+        long next = bucket.notifyAt.get();
+        if (next != Long.MIN_VALUE && now - next < 0) return false;
+        return bucket.notifyAt.compareAndSet(next, now + notifyNanos);
+    }
+
+    // 토큰이 모두 채워진(= 이론상 시각이 이미 지난) 버킷은 새 버킷과 같으므로 제거
+    private void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> {
+            bucket.boxes.values().removeIf(tat -> expired(tat.get(), now));
+            return expired(bucket.tat.get(), now) && bucket.boxes.isEmpty()
+                    && expired(bucket.notifyAt.get(), now);
+        });
+    }
+
+    private static boolean expired(long time, long now) {
+        return time == Long.MIN_VALUE || time - now < 0;
+    }
+
+    private static final class Bucket {
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong notifyAt = new AtomicLong(Long.MIN_VALUE);
+        private final Map<String, AtomicLong> boxes = new ConcurrentHashMap<>(4);
+    }
+}
@@ -0,0 +1,454 @@
+package com.github.maharong.randombox.mailbox;
+
+import com.github.maharong.randombox.util.MessageUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인벤토리가 가득 찼거나 오프라인인 플레이어에게 줄 아이템을 보관하는 우편함입니다.
+ * <p>
+ * 모든 변경은 {@code mailbox.dat} 파일 끝에 추가(ADD)/삭제(REMOVE) 기록으로 남기고,
+ * 메모리에는 플레이어별로 아이템 데이터의 파일 위치만 색인해 둡니다.
+ * 따라서 수령 시에는 해당 플레이어의 항목만 바로 읽으며, 전체 파일을 훑지 않습니다.
+ * 삭제된 기록이 쌓이면 주기적으로 살아 있는 항목만 새 파일로 옮겨 압축합니다.
+ * <p>
+ * 파일 접근과 색인 변경은 전용 스레드 하나에서만 수행하며, 아이템 지급은 메인 스레드에서 이루어집니다.
+ */
+public class Mailbox implements Listener {
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int ADD_HEADER = 1 + 16 + 8 + 4;
+    private static final int REMOVE_SIZE = 1 + 16 + 8;
+    private static final long COMPACT_MIN_DEAD_BYTES = 64 * 1024;
+
+    /**
+     * 파일 내 아이템 데이터 위치
+     */
+    private record Entry(long offset, int length) {
+    }
+
+    /**
+     * 수령을 위해 읽어 온 항목
+     */
+    private record Stored(long id, byte[] data) {
+    }
+
+    private final Plugin plugin;
+    private final File file;
+    private final int batchSize;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RandomBox-Mailbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 아래 필드는 io 스레드에서만 접근
+    private final Map<UUID, LinkedHashMap<Long, Entry>> index = new HashMap<>();
+    private FileChannel channel;
+    private long nextId = 1;
+    private long liveBytes;
+    private long deadBytes;
+
+    // 메인 스레드에서만 접근
+    private final Set<UUID> claiming = new HashSet<>();
+    private BukkitTask compactTask;
+
+    public Mailbox(Plugin plugin, int batchSize) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "mailbox.dat");
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 기록 파일을 읽어 색인을 만들고 주기적 압축 작업을 시작합니다.
+     *
+     * @param compactIntervalTicks 압축 검사 주기 (틱)
+     */
+    public void open(long compactIntervalTicks) {
+        try {
+            io.submit(() -> {
+                replay();
+                return null;
+            }).get();
+        } catch (Exception e) {
+            Bukkit.getLogger().severe("[RandomBox] 우편함 파일을 불러오는 중 오류 발생: " + e.getMessage());
+        }
+        compactTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin,
+                () -> io.execute(this::compactIfNeeded), compactIntervalTicks, compactIntervalTicks);
+    }
+
+    /**
+     * 플레이어에게 아이템을 지급하고, 인벤토리에 들어가지 않은 아이템은 우편함에 보관합니다.
+     * 메인 스레드에서 호출해야 합니다.
+     *
+     * @param player 대상 플레이어
+     * @param items 지급할 아이템
+     */
+    public void giveOrStore(Player player, ItemStack... items) {
+        Map<Integer, ItemStack> leftover = player.getInventory().addItem(items);
+        if (leftover.isEmpty()) return;
+
+        store(player.getUniqueId(), leftover.values());
+        MessageUtil.send(player, "mailbox.stored", "{count}", String.valueOf(leftover.size()));
+    }
+
+    /**
+     * 아이템을 우편함에 보관합니다. 최대 스택 크기를 넘는 아이템은 나눠서 보관합니다.
+     * 메인 스레드에서 호출해야 합니다. (아이템 직렬화)
+     *
+     * @param uuid 대상 플레이어 UUID
+     * @param items 보관할 아이템
+     */
+    public void store(UUID uuid, Collection<ItemStack> items) {
+        List<byte[]> serialized = new ArrayList<>();
+        for (ItemStack item : items) {
+            if (item == null || item.getType().isAir()) continue;
+            int max = Math.max(1, item.getMaxStackSize());
+            int remaining = item.getAmount();
+            byte[] full = null; // 가득 찬 묶음은 내용이 같으므로 한 번만 직렬화
+            while (remaining > 0) {
+                int count = Math.min(max, remaining);
+                remaining -= count;
+                if (count == max && full != null) {
+                    serialized.add(full);
+                    continue;
+                }
+                ItemStack part = item.clone();
+                part.setAmount(count);
+                byte[] data = part.serializeAsBytes();
+                if (count == max) full = data;
+                serialized.add(data);
+            }
+        }
+        if (serialized.isEmpty()) return;
+
+        io.execute(() -> {
+            for (byte[] data : serialized) {
+                append(uuid, data);
+            }
+        });
+    }
+
+    /**
+     * 우편함의 아이템을 묶음 단위로 지급합니다. 인벤토리가 가득 차거나 우편함이 빌 때까지
+     * 한 틱에 한 묶음씩 이어서 지급합니다. 메인 스레드에서 호출해야 합니다.
+     *
+     * @param player 대상 플레이어
+     * @param notifyEmpty 우편함이 비어 있을 때 안내 메시지를 보낼지 여부
+     */
+    public void claim(Player player, boolean notifyEmpty) {
+        UUID uuid = player.getUniqueId();
+        if (!claiming.add(uuid)) return;
+        claimBatch(uuid, notifyEmpty, 0);
+    }
+
+    private void claimBatch(UUID uuid, boolean notifyEmpty, int deliveredSoFar) {
+        CompletableFuture.supplyAsync(() -> peek(uuid), io)
+                .thenAccept(batch -> Bukkit.getScheduler().runTask(plugin,
+                        () -> deliverBatch(uuid, batch, notifyEmpty, deliveredSoFar)));
+    }
+
+    private void deliverBatch(UUID uuid, List<Stored> batch, boolean notifyEmpty, int deliveredSoFar) {
+        Player player = Bukkit.getPlayer(uuid);
+        if (player == null) {
+            claiming.remove(uuid);
+            return;
+        }
+
+        if (batch.isEmpty()) {
+            claiming.remove(uuid);
+            if (deliveredSoFar > 0) {
+                MessageUtil.send(player, "mailbox.delivered", "{count}", String.valueOf(deliveredSoFar));
+            } else if (notifyEmpty) {
+                MessageUtil.send(player, "mailbox.empty");
+            }
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        List<ItemStack> items = new ArrayList<>(batch.size());
+        for (Stored stored : batch) {
+            ids.add(stored.id());
+            try {
+                items.add(ItemStack.deserializeBytes(stored.data()));
+            } catch (Exception e) {
+                Bukkit.getLogger().severe("[RandomBox] 우편함 아이템 복원 실패 (" + uuid + "#" + stored.id() + "): " + e.getMessage());
+            }
+        }
+
+        Map<Integer, ItemStack> leftover = player.getInventory().addItem(items.toArray(new ItemStack[0]));
+        // 전달한 항목은 삭제하고, 들어가지 않은 나머지만 다시 보관
+        List<byte[]> remaining = new ArrayList<>(leftover.size());
+        for (ItemStack item : leftover.values()) {
+            remaining.add(item.serializeAsBytes());
+        }
+        io.execute(() -> {
+            for (long id : ids) {
+                remove(uuid, id);
+            }
+            for (byte[] data : remaining) {
+                append(uuid, data);
+            }
+        });
+
+        int delivered = deliveredSoFar + items.size() - leftover.size();
+        if (!leftover.isEmpty()) {
+            claiming.remove(uuid);
+            if (delivered > 0) {
+                MessageUtil.send(player, "mailbox.delivered", "{count}", String.valueOf(delivered));
+            }
+            MessageUtil.send(player, "mailbox.full");
+            return;
+        }
+
+        // 다음 묶음은 다음 틱에 이어서 지급
+        claimBatch(uuid, notifyEmpty, delivered);
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        UUID uuid = player.getUniqueId();
+        CompletableFuture.supplyAsync(() -> index.containsKey(uuid), io).thenAccept(pending -> {
+            if (!pending) return;
+            // 접속 직후 인벤토리가 로드될 시간을 두고 지급
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                if (!player.isOnline()) return;
+                MessageUtil.send(player, "mailbox.pending");
+                claim(player, false);
+            }, 20L);
+        });
+    }
+
+    /**
+     * 남은 기록을 모두 파일에 반영하고 닫습니다. 플러그인 비활성화 시 호출됩니다.
+     */
+    public void close() {
+        if (compactTask != null) compactTask.cancel();
+        io.execute(() -> {
+            try {
+                if (channel != null) {
+                    channel.force(true);
+                    channel.close();
+                }
+            } catch (IOException e) {
+                Bukkit.getLogger().severe("[RandomBox] 우편함 파일을 닫는 중 오류 발생: " + e.getMessage());
+            }
+        });
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(10, TimeUnit.SECONDS)) {
+                Bukkit.getLogger().warning("[RandomBox] 우편함 기록 작업이 제시간에 끝나지 않았습니다.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // 아래는 io 스레드 전용
+    // ------------------------------------------------------------------
+
+    private List<Stored> peek(UUID uuid) {
+        LinkedHashMap<Long, Entry> entries = index.get(uuid);
+        if (entries == null) return List.of();
+
+        List<Stored> batch = new ArrayList<>(Math.min(batchSize, entries.size()));
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            if (batch.size() >= batchSize) break;
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(entry.getValue().length());
+                long position = entry.getValue().offset();
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position + buffer.position());
+                    if (read < 0) throw new EOFException();
+                }
+                batch.add(new Stored(entry.getKey(), buffer.array()));
+            } catch (IOException e) {
+                Bukkit.getLogger().severe("[RandomBox] 우편함 아이템 읽기 실패 (" + uuid + "): " + e.getMessage());
+            }
+        }
+        return batch;
+    }
+
+    private void append(UUID uuid, byte[] data) {
+        try {
+            long id = nextId++;
+            ByteBuffer buffer = ByteBuffer.allocate(ADD_HEADER + data.length);
+            buffer.put(OP_ADD)
+                    .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits())
+                    .putLong(id).putInt(data.length).put(data).flip();
+            long start = channel.size();
+            writeFully(buffer, start);
+            index.computeIfAbsent(uuid, k -> new LinkedHashMap<>()).put(id, new Entry(start + ADD_HEADER, data.length));
+            liveBytes += ADD_HEADER + data.length;
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] 우편함 기록 실패 (" + uuid + "): " + e.getMessage());
+        }
+    }
+
+    private void remove(UUID uuid, long id) {
+        LinkedHashMap<Long, Entry> entries = index.get(uuid);
+        if (entries == null) return;
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        if (entries.isEmpty()) index.remove(uuid);
+
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(REMOVE_SIZE);
+            buffer.put(OP_REMOVE)
+                    .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits())
+                    .putLong(id).flip();
+            writeFully(buffer, channel.size());
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] 우편함 삭제 기록 실패 (" + uuid + "): " + e.getMessage());
+        }
+        liveBytes -= ADD_HEADER + entry.length();
+        deadBytes += ADD_HEADER + entry.length() + REMOVE_SIZE;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * 기록 파일을 처음부터 읽어 색인을 만듭니다. 비정상 종료로 잘린 마지막 기록은 잘라 냅니다.
+     */
+    private void replay() throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long position = 0;
+        try (InputStream raw = Files.newInputStream(file.toPath());
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+            while (true) {
+                int op = in.read();
+                if (op < 0) break;
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                long id = in.readLong();
+                if (op == OP_ADD) {
+                    int length = in.readInt();
+                    in.skipNBytes(length);
+                    index.computeIfAbsent(uuid, k -> new LinkedHashMap<>()).put(id, new Entry(position + ADD_HEADER, length));
+                    liveBytes += ADD_HEADER + length;
+                    position += ADD_HEADER + length;
+                } else if (op == OP_REMOVE) {
+                    LinkedHashMap<Long, Entry> entries = index.get(uuid);
+                    Entry removed = entries == null ? null : entries.remove(id);
+                    if (removed != null) {
+                        liveBytes -= ADD_HEADER + removed.length();
+                        deadBytes += ADD_HEADER + removed.length();
+                        if (entries.isEmpty()) index.remove(uuid);
+                    }
+                    deadBytes += REMOVE_SIZE;
+                    position += REMOVE_SIZE;
+                } else {
+                    throw new IOException("알 수 없는 기록 형식: " + op);
+                }
+                nextId = Math.max(nextId, id + 1);
+            }
+        } catch (EOFException e) {
+            Bukkit.getLogger().warning("[RandomBox] 우편함 파일 끝의 불완전한 기록을 잘라 냅니다.");
+        }
+
+        if (channel.size() > position) {
+            channel.truncate(position);
+        }
+    }
+
+    /**
+     * 삭제된 기록이 살아 있는 기록보다 많으면 살아 있는 항목만 새 파일로 옮깁니다.
+     */
+    private void compactIfNeeded() {
+        if (deadBytes < COMPACT_MIN_DEAD_BYTES || deadBytes < liveBytes) return;
+
+        File temp = new File(file.getParentFile(), "mailbox.dat.tmp");
+        Map<UUID, LinkedHashMap<Long, Entry>> compacted = new HashMap<>();
+        try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            for (Map.Entry<UUID, LinkedHashMap<Long, Entry>> player : index.entrySet()) {
+                UUID uuid = player.getKey();
+                LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+                for (Iterator<Map.Entry<Long, Entry>> it = player.getValue().entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<Long, Entry> entry = it.next();
+                    Entry old = entry.getValue();
+                    ByteBuffer buffer = ByteBuffer.allocate(ADD_HEADER + old.length());
+                    buffer.put(OP_ADD)
+                            .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits())
+                            .putLong(entry.getKey()).putInt(old.length());
+                    while (buffer.hasRemaining()) {
+                        int read = channel.read(buffer, old.offset() + buffer.position() - ADD_HEADER);
+                        if (read < 0) throw new EOFException();
+                    }
+                    buffer.flip();
+                    long start = position;
+                    while (buffer.hasRemaining()) {
+                        position += out.write(buffer, position);
+                    }
+                    entries.put(entry.getKey(), new Entry(start + ADD_HEADER, old.length()));
+                }
+                compacted.put(uuid, entries);
+            }
+            out.force(true);
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] 우편함 압축 실패: " + e.getMessage());
+            return;
+        }
+
+        try {
+            channel.close();
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] 우편함 압축 파일 교체 실패: " + e.getMessage());
+            // 기존 파일로 계속 사용
+            try {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException reopen) {
+                Bukkit.getLogger().severe("[RandomBox] 우편함 파일을 다시 열지 못했습니다: " + reopen.getMessage());
+            }
+            return;
+        }
+
+        index.clear();
+        index.putAll(compacted);
+        deadBytes = 0;
+        Bukkit.getLogger().info("[RandomBox] 우편함 파일을 압축했습니다. (" + liveBytes + " bytes)");
+    }
+}
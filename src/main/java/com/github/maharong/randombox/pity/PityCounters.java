@@ -0,0 +1,121 @@
+package com.github.maharong.randombox.pity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 한 플레이어의 천장 카운터입니다.
+ * 모든 박스의 카운터를 {@link PityLayout} 슬롯 번호로 인덱싱되는 int 배열 하나에 담습니다.
+ * <p>
+ * 카운터 조회/증가는 메인 스레드에서만 수행되며, 저장 스레드는 {@link #snapshot()}으로 복사본을 읽습니다.
+ * 변경과 복사는 같은 모니터로 보호하고, 변경 횟수를 세어 두었다가 저장이 끝난 시점의 횟수와 비교하므로
+ * 저장 도중에 생긴 변경이 저장된 것으로 처리되지 않습니다.
+ */
+public final class PityCounters {
+
+    /**
+     * 저장용 복사본
+     *
+     * @param values 슬롯 키별 카운터 값 (0이 아닌 값만)
+     * @param version 복사 시점의 변경 횟수 ({@link #markSaved(long)}에 전달)
+     */
+    record Snapshot(Map<String, Integer> values, long version) {
+    }
+
+    private PityLayout layout;
+    private int[] values;
+    private long version;
+    private long savedVersion;
+    private boolean queued;
+    volatile boolean offline;
+
+    PityCounters(PityLayout layout) {
+        this.layout = layout;
+        this.values = new int[layout.size()];
+    }
+
+    PityCounters(PityLayout layout, Map<String, Integer> stored) {
+        this(layout);
+        stored.forEach((key, value) -> {
+            int slot = layout.slotOf(key);
+            if (slot >= 0) values[slot] = value;
+        });
+    }
+
+    /**
+     * @param slot 슬롯 번호
+     * @return 마지막 당첨 이후 개봉 횟수
+     */
+    public int get(int slot) {
+        return values[slot];
+    }
+
+    public synchronized void increment(int slot) {
+        values[slot]++;
+        version++;
+    }
+
+    public synchronized void reset(int slot) {
+        values[slot] = 0;
+        version++;
+    }
+
+    /**
+     * 저장 대기열 등록 여부를 확인하고 등록 표시를 남깁니다.
+     *
+     * @return 저장 대기열에 새로 등록해야 하면 true (저장할 변경이 없거나 이미 등록되어 있으면 false)
+     */
+    public synchronized boolean markDirty() {
+        if (queued || version == savedVersion) return false;
+        queued = true;
+        return true;
+    }
+
+    PityLayout layout() {
+        return layout;
+    }
+
+    /**
+     * @return 아직 파일에 기록되지 않은 변경이 있으면 true
+     */
+    synchronized boolean isDirty() {
+        return version != savedVersion;
+    }
+
+    /**
+     * 복사본의 저장이 끝났음을 기록합니다. 복사 이후에 생긴 변경은 여전히 저장 대상으로 남습니다.
+     *
+     * @param savedAt 저장한 복사본의 {@link Snapshot#version()}
+     */
+    synchronized void markSaved(long savedAt) {
+        savedVersion = Math.max(savedVersion, savedAt);
+    }
+
+    /**
+     * 박스 리로드로 슬롯 배치가 바뀌었을 때 기존 값을 새 배치로 옮깁니다.
+     */
+    synchronized void remap(PityLayout newLayout) {
+        int[] remapped = new int[newLayout.size()];
+        for (int i = 0; i < values.length; i++) {
+            int slot = newLayout.slotOf(layout.key(i));
+            if (slot >= 0) remapped[slot] = values[i];
+        }
+        layout = newLayout;
+        values = remapped;
+    }
+
+    /**
+     * 저장용 복사본을 만들고 대기열 등록 표시를 지웁니다.
+     * 이후의 변경은 다시 {@link #markDirty()}로 대기열에 등록됩니다.
+     *
+     * @return 복사본과 복사 시점의 변경 횟수
+     */
+    synchronized Snapshot snapshot() {
+        queued = false;
+        Map<String, Integer> copy = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0) copy.put(layout.key(i), values[i]);
+        }
+        return new Snapshot(copy, version);
+    }
+}
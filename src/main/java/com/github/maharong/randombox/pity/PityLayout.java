@@ -0,0 +1,53 @@
+package com.github.maharong.randombox.pity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 천장 카운터 배열의 슬롯 배치 정보입니다.
+ * 박스 로딩 시 천장이 설정된 모든 보상 그룹에 전역 슬롯 번호를 부여하며,
+ * 각 슬롯은 {@code 박스ID#그룹인덱스} 형식의 키로 저장소와 연결됩니다.
+ */
+public final class PityLayout {
+
+    public static final PityLayout EMPTY = new PityLayout(List.of());
+
+    private final String[] keys;
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    public PityLayout(List<String> keys) {
+        this.keys = keys.toArray(new String[0]);
+        for (int i = 0; i < this.keys.length; i++) {
+            slots.put(this.keys[i], i);
+        }
+    }
+
+    /**
+     * 저장소에 기록할 슬롯 키를 만듭니다.
+     *
+     * @param boxId 박스 ID
+     * @param groupIndex 박스 내 보상 그룹 인덱스
+     * @return 슬롯 키
+     */
+    public static String key(String boxId, int groupIndex) {
+        return boxId + "#" + groupIndex;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public String key(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * @param key 슬롯 키
+     * @return 슬롯 번호 (없으면 -1)
+     */
+    public int slotOf(String key) {
+        Integer slot = slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+}
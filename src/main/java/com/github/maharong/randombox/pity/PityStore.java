@@ -0,0 +1,204 @@
+package com.github.maharong.randombox.pity;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 플레이어별 천장 카운터 저장소입니다.
+ * <p>
+ * 카운터는 접속 전 비동기 로그인 단계에서 미리 불러오고,
+ * 변경된 카운터는 주기적인 비동기 작업에서 묶어서 {@code pity/<UUID>.dat} 파일에 기록합니다.
+ * 따라서 박스 개봉 중에는 디스크에 접근하지 않습니다.
+ */
+public final class PityStore implements Listener {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Plugin plugin;
+    private final File folder;
+    private final Map<UUID, PityCounters> loaded = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<UUID> dirtyQueue = new ConcurrentLinkedQueue<>();
+    private volatile PityLayout layout = PityLayout.EMPTY;
+    private BukkitTask flushTask;
+
+    public PityStore(Plugin plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "pity");
+    }
+
+    /**
+     * 주기적 저장 작업을 시작하고, 이미 접속 중인 플레이어의 카운터를 불러옵니다.
+     *
+     * @param flushIntervalTicks 저장 주기 (틱)
+     */
+    public void start(long flushIntervalTicks) {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            loaded.computeIfAbsent(player.getUniqueId(), this::load);
+        }
+        flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+                flushIntervalTicks, flushIntervalTicks);
+    }
+
+    /**
+     * 박스 로딩 후 새 슬롯 배치를 적용합니다. 기존 카운터는 다음 조회 시 새 배치로 옮겨집니다.
+     */
+    public void setLayout(PityLayout layout) {
+        this.layout = layout;
+    }
+
+    public PityLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * 플레이어의 카운터를 반환합니다. 메인 스레드에서만 호출해야 합니다.
+     *
+     * @param uuid 플레이어 UUID
+     * @return 카운터 (불러온 적이 없으면 빈 카운터)
+     */
+    public PityCounters counters(UUID uuid) {
+        PityCounters counters = loaded.get(uuid);
+        if (counters == null) {
+            counters = new PityCounters(layout);
+            loaded.put(uuid, counters);
+        } else if (counters.layout() != layout) {
+            counters.remap(layout);
+        }
+        return counters;
+    }
+
+    /**
+     * 카운터가 변경되었음을 표시합니다. 다음 저장 주기에 기록됩니다.
+     */
+    public void markDirty(UUID uuid, PityCounters counters) {
+        if (counters.markDirty()) {
+            dirtyQueue.add(uuid);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        // 로그인 스레드(비동기)에서 디스크를 읽는다
+        loaded.compute(event.getUniqueId(), (uuid, existing) -> {
+            if (existing != null) {
+                existing.offline = false;
+                return existing;
+            }
+            return load(uuid);
+        });
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        PityCounters counters = loaded.get(uuid);
+        if (counters == null) return;
+        counters.offline = true;
+        if (counters.isDirty()) {
+            // 다음 저장 주기에 기록 후 메모리에서 해제
+            dirtyQueue.add(uuid);
+        } else {
+            loaded.remove(uuid, counters);
+        }
+    }
+
+    /**
+     * 변경된 카운터를 모두 파일에 기록합니다.
+     */
+    public synchronized void flush() {
+        List<UUID> failed = new ArrayList<>();
+        UUID uuid;
+        while ((uuid = dirtyQueue.poll()) != null) {
+            PityCounters counters = loaded.get(uuid);
+            if (counters == null) continue;
+            if (counters.isDirty()) {
+                PityCounters.Snapshot snapshot = counters.snapshot();
+                if (!save(uuid, snapshot.values())) {
+                    failed.add(uuid);
+                    continue;
+                }
+                counters.markSaved(snapshot.version());
+            }
+            // 접속 종료한 플레이어는 저장 후 해제 (그 사이 재접속했다면 유지)
+            loaded.computeIfPresent(uuid, (key, value) -> value.offline && !value.isDirty() ? null : value);
+        }
+
+        // 저장에 실패한 카운터는 다음 주기에 다시 시도
+        for (UUID retry : failed) {
+            PityCounters counters = loaded.get(retry);
+            if (counters != null) markDirty(retry, counters);
+        }
+    }
+
+    /**
+     * 저장 작업을 멈추고 남은 카운터를 모두 기록합니다. 플러그인 비활성화 시 호출됩니다.
+     */
+    public void close() {
+        if (flushTask != null) flushTask.cancel();
+        dirtyQueue.addAll(loaded.keySet());
+        flush();
+    }
+
+    private PityCounters load(UUID uuid) {
+        File file = new File(folder, uuid + ".dat");
+        if (!file.exists()) return new PityCounters(layout);
+
+        Map<String, Integer> stored = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("지원하지 않는 형식 버전: " + version);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                stored.put(in.readUTF(), in.readInt());
+            }
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] 천장 데이터 로딩 중 오류 발생 (" + uuid + "): " + e.getMessage());
+        }
+        return new PityCounters(layout, stored);
+    }
+
+    private boolean save(UUID uuid, Map<String, Integer> values) {
+        File file = new File(folder, uuid + ".dat");
+        try {
+            Files.createDirectories(folder.toPath());
+            File temp = new File(folder, uuid + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp.toPath()))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(values.size());
+                for (Map.Entry<String, Integer> entry : values.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue());
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] 천장 데이터 저장 중 오류 발생 (" + uuid + "): " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.maharong.randombox.random;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 천장에 의해 추첨 결과가 바뀐 기록입니다.
+ * 같은 시드로 재현할 때 이 기록을 적용해야 개봉 당시와 같은 결과가 나옵니다.
+ * <p>
+ * rolls.log에는 {@code 추첨번호:그룹인덱스}를 ';'로 이어 적으며, 없으면 {@code -}로 적습니다.
+ *
+ * @param draw 몇 번째 추첨인지 (1부터)
+ * @param group 천장으로 당첨된 그룹 인덱스
+ */
+public record PityHit(int draw, int group) {
+
+    /**
+     * rolls.log에 적을 문자열로 변환합니다.
+     *
+     * @param hits 천장 기록 목록
+     * @return 기록 문자열 (없으면 "-")
+     */
+    public static String format(List<PityHit> hits) {
+        if (hits.isEmpty()) return "-";
+        StringBuilder builder = new StringBuilder();
+        for (PityHit hit : hits) {
+            if (!builder.isEmpty()) builder.append(';');
+            builder.append(hit.draw()).append(':').append(hit.group());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * rolls.log에 기록된 문자열을 해석합니다.
+     *
+     * @param text 기록 문자열 ("-"이면 빈 목록)
+     * @return 천장 기록 목록
+     * @throws IllegalArgumentException 형식이 잘못된 경우
+     */
+    public static List<PityHit> parse(String text) {
+        if (text.isEmpty() || text.equals("-")) return List.of();
+
+        List<PityHit> hits = new ArrayList<>();
+        for (String part : text.split(";")) {
+            int colon = part.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("천장 기록 형식이 잘못되었습니다: " + part);
+            }
+            try {
+                hits.add(new PityHit(Integer.parseInt(part.substring(0, colon)), Integer.parseInt(part.substring(colon + 1))));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("천장 기록 형식이 잘못되었습니다: " + part, e);
+            }
+        }
+        return hits;
+    }
+}
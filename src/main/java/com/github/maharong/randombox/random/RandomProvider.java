@@ -0,0 +1,44 @@
+package com.github.maharong.randombox.random;
+
+import com.github.maharong.randombox.box.BoxData;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * 박스 개봉 시 사용할 난수 생성기를 공급하는 인터페이스입니다.
+ * {@link com.github.maharong.randombox.reward.RewardSelector}는 항상 이 인터페이스를 통해 난수를 얻습니다.
+ */
+public interface RandomProvider {
+
+    /**
+     * 한 번의 개봉에 사용할 난수 생성기를 반환합니다.
+     * 반환된 생성기는 호출한 스레드 안에서만 사용해야 합니다.
+     *
+     * @param player 박스를 여는 플레이어
+     * @param box 개봉할 박스
+     * @return 이번 개봉에 사용할 난수 생성기
+     */
+    RandomGenerator open(Player player, BoxData box);
+
+    /**
+     * 개봉 결과를 통지받습니다. 재현용 기록이 필요한 구현체에서 사용합니다.
+     *
+     * @param player 박스를 연 플레이어
+     * @param box 개봉한 박스
+     * @param random {@link #open}에서 반환했던 난수 생성기
+     * @param draws 이 난수 생성기로 추첨한 횟수
+     * @param result 추첨된 그룹 인덱스 (없거나 여러 번 추첨한 경우 -1)
+     * @param pityHits 천장으로 결과가 바뀐 추첨 목록 (없으면 빈 목록)
+     */
+    default void complete(Player player, BoxData box, RandomGenerator random, int draws, int result,
+                          List<PityHit> pityHits) {
+    }
+
+    /**
+     * 남아 있는 기록 등을 정리합니다. 플러그인 비활성화 시 호출됩니다.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.maharong.randombox.random;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 시드 모드에서 개봉 기록을 rolls.log 파일에 남기는 클래스입니다.
+ * 기록은 큐에 쌓였다가 비동기 작업에서 한꺼번에 파일 끝에 추가됩니다.
+ * <p>
+ * 형식: {@code 시각(ms),UUID,플레이어,박스ID,시드,추첨횟수,그룹인덱스,천장당첨}
+ * <p>
+ * 천장당첨은 천장으로 결과가 바뀐 추첨을 {@link PityHit#format} 형식으로 적은 것으로,
+ * {@code /randombox replay}에 그대로 넘기면 천장이 적용된 개봉도 같은 결과로 재현됩니다.
+ */
+public final class RollLog {
+
+    private final File file;
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final BukkitTask task;
+
+    public RollLog(Plugin plugin) {
+        this.file = new File(plugin.getDataFolder(), "rolls.log");
+        this.task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, 20L, 20L);
+    }
+
+    public void record(Player player, String boxId, long seed, int draws, int result, List<PityHit> pityHits) {
+        pending.add(System.currentTimeMillis() + "," + player.getUniqueId() + "," + player.getName()
+                + "," + boxId + "," + seed + "," + draws + "," + result + "," + PityHit.format(pityHits));
+    }
+
+    /**
+     * 쌓인 기록을 파일에 추가합니다.
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty()) return;
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            String line;
+            while ((line = pending.poll()) != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] rolls.log 기록 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    public void close() {
+        task.cancel();
+        flush();
+    }
+}
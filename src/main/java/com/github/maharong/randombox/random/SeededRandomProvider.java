@@ -0,0 +1,104 @@
+package com.github.maharong.randombox.random;
+
+import com.github.maharong.randombox.box.BoxData;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * 재현 가능한 난수 공급자입니다.
+ * 개봉마다 마스터 시드, 플레이어 UUID, 개봉 번호를 섞어 시드를 만들고,
+ * 해당 시드와 결과를 {@link RollLog}에 기록합니다.
+ * 기록된 시드로 {@link #replay(long)}를 호출하고 기록된 천장 당첨({@link PityHit})을 적용하면
+ * 같은 결과를 그대로 재현할 수 있습니다.
+ */
+public final class SeededRandomProvider implements RandomProvider {
+
+    private final long masterSeed;
+    private final AtomicLong openCounter;
+    private final RollLog log;
+
+    public SeededRandomProvider(long masterSeed, RollLog log) {
+        this.masterSeed = masterSeed;
+        // 서버 재시작 후에도 같은 시드가 반복되지 않도록 시작 시각에서 출발
+        this.openCounter = new AtomicLong(System.currentTimeMillis() << 20);
+        this.log = log;
+    }
+
+    @Override
+    public RandomGenerator open(Player player, BoxData box) {
+        UUID uuid = player.getUniqueId();
+        long seed = mix(masterSeed
+                ^ mix(uuid.getMostSignificantBits())
+                ^ mix(uuid.getLeastSignificantBits() + openCounter.incrementAndGet()));
+        return new SeededRandom(seed);
+    }
+
+    @Override
+    public void complete(Player player, BoxData box, RandomGenerator random, int draws, int result,
+                         List<PityHit> pityHits) {
+        if (random instanceof SeededRandom seeded) {
+            log.record(player, box.id(), seeded.seed(), draws, result, pityHits);
+        }
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    /**
+     * 기록된 시드로 개봉 당시와 동일한 난수 스트림을 생성합니다.
+     *
+     * @param seed rolls.log에 기록된 시드
+     * @return 재현용 난수 생성기
+     */
+    public static RandomGenerator replay(long seed) {
+        return new SeededRandom(seed);
+    }
+
+    /**
+     * SplitMix64 최종 혼합 함수
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 시드를 기억하는 {@link SplittableRandom} 래퍼
+     */
+    private static final class SeededRandom implements RandomGenerator {
+        private final long seed;
+        private final SplittableRandom delegate;
+
+        private SeededRandom(long seed) {
+            this.seed = seed;
+            this.delegate = new SplittableRandom(seed);
+        }
+
+        long seed() {
+            return seed;
+        }
+
+        @Override
+        public long nextLong() {
+            return delegate.nextLong();
+        }
+
+        @Override
+        public double nextDouble() {
+            return delegate.nextDouble();
+        }
+
+        @Override
+        public int nextInt() {
+            return delegate.nextInt();
+        }
+    }
+}
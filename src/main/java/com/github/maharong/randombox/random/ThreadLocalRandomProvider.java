@@ -0,0 +1,19 @@
+package com.github.maharong.randombox.random;
+
+import com.github.maharong.randombox.box.BoxData;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 기본 난수 공급자입니다.
+ * 스레드마다 독립된 난수 스트림을 사용하므로 여러 스레드에서 동시에 개봉해도 경합이 없습니다.
+ */
+public final class ThreadLocalRandomProvider implements RandomProvider {
+
+    @Override
+    public RandomGenerator open(Player player, BoxData box) {
+        return ThreadLocalRandom.current();
+    }
+}
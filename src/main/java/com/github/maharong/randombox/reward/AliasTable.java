@@ -0,0 +1,140 @@
+package com.github.maharong.randombox.reward;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 보상 그룹의 가중치로부터 미리 계산해 두는 Vose 별칭(alias) 테이블입니다.
+ * 박스 로딩 시 한 번만 생성되며, 추첨은 그룹 수와 무관하게 상수 시간에 할당 없이 수행됩니다.
+ * <p>
+ * 가중치는 합이 100일 필요가 없으며, 내부적으로 전체 합을 기준으로 정규화됩니다.
+ */
+public final class AliasTable {
+
+    private static final AliasTable EMPTY = new AliasTable(new double[0], new int[0], 0.0);
+
+    private final double[] probability;
+    private final int[] alias;
+    private final double totalWeight;
+
+    private AliasTable(double[] probability, int[] alias, double totalWeight) {
+        this.probability = probability;
+        this.alias = alias;
+        this.totalWeight = totalWeight;
+    }
+
+    /**
+     * 보상 그룹의 chance 값을 가중치로 사용해 테이블을 생성합니다.
+     *
+     * @param groups 보상 그룹 목록 (인덱스가 추첨 결과와 1:1 대응)
+     * @return 생성된 별칭 테이블
+     */
+    public static AliasTable of(List<RewardGroup> groups) {
+        double[] weights = new double[groups.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = groups.get(i).chance();
+        }
+        return build(weights);
+    }
+
+    /**
+     * 임의의 가중치 배열로 테이블을 생성합니다.
+     *
+     * @param weights 0 이상의 가중치 배열
+     * @return 생성된 별칭 테이블 (가중치 합이 0이면 빈 테이블)
+     * @throws IllegalArgumentException 음수, NaN, 무한대 가중치가 포함된 경우
+     */
+    public static AliasTable build(double[] weights) {
+        int n = weights.length;
+        double total = 0.0;
+        for (double weight : weights) {
+            if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("잘못된 확률(가중치) 값입니다: " + weight);
+            }
+            total += weight;
+        }
+        if (n == 0 || total <= 0.0) {
+            return EMPTY;
+        }
+
+        double[] scaled = new double[n];
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small.push(i);
+            } else {
+                large.push(i);
+            }
+        }
+
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small.push(more);
+            } else {
+                large.push(more);
+            }
+        }
+
+        // 부동소수점 오차로 남은 항목은 자기 자신을 100% 선택하도록 처리
+        while (!large.isEmpty()) {
+            int index = large.pop();
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (!small.isEmpty()) {
+            int index = small.pop();
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+
+        return new AliasTable(probability, alias, total);
+    }
+
+    /**
+     * [0, 1) 범위의 균등 난수 하나로 인덱스를 추첨합니다.
+     *
+     * @param uniform [0, 1) 범위의 난수
+     * @return 추첨된 인덱스 (빈 테이블이면 -1)
+     */
+    public int sample(double uniform) {
+        int n = probability.length;
+        if (n == 0) return -1;
+
+        double scaled = uniform * n;
+        int column = (int) scaled;
+        if (column >= n) column = n - 1;
+        return (scaled - column) < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * @return 테이블에 포함된 항목 수
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * @return 정규화 이전의 가중치 합
+     */
+    public double totalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return 추첨 가능한 항목이 없으면 true
+     */
+    public boolean isEmpty() {
+        return probability.length == 0;
+    }
+}
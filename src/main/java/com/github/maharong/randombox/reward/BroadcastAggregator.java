@@ -0,0 +1,99 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.util.MessageUtil;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BROADCAST 보상을 일정 시간(틱) 동안 모았다가 한 번에 전송하는 클래스입니다.
+ * 같은 보상의 당첨자는 "A, B 외 3명" 형식으로 묶이며, 한 구간에 모인 모든 브로드캐스트는
+ * 하나의 컴포넌트로 합쳐져 한 번만 전송됩니다. 메인 스레드에서만 사용합니다.
+ */
+public class BroadcastAggregator {
+
+    private final Plugin plugin;
+    private final long windowTicks;
+    private final int maxNames;
+    private final Map<BroadcastReward, List<String>> pending = new LinkedHashMap<>();
+    private BukkitTask task;
+    private boolean closed;
+
+    /**
+     * @param plugin 작업을 예약할 플러그인
+     * @param windowTicks 묶음 구간 (틱, 0 이하이면 즉시 전송)
+     * @param maxNames 요약 전에 이름을 그대로 보여줄 최대 인원
+     */
+    public BroadcastAggregator(Plugin plugin, long windowTicks, int maxNames) {
+        this.plugin = plugin;
+        this.windowTicks = windowTicks;
+        this.maxNames = Math.max(1, maxNames);
+    }
+
+    /**
+     * 브로드캐스트를 예약합니다.
+     *
+     * @param reward 당첨된 BROADCAST 보상
+     * @param playerName 당첨자 이름
+     */
+    public void submit(BroadcastReward reward, String playerName) {
+        if (closed || windowTicks <= 0) {
+            Bukkit.broadcast(reward.render(playerName));
+            return;
+        }
+
+        pending.computeIfAbsent(reward, k -> new ArrayList<>()).add(playerName);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskLater(plugin, this::flush, windowTicks);
+        }
+    }
+
+    /**
+     * 예약된 전송을 취소하고 모인 브로드캐스트를 바로 전송합니다. 이후의 브로드캐스트는 즉시 전송됩니다.
+     * 플러그인 비활성화 시 호출됩니다.
+     */
+    public void shutdown() {
+        closed = true;
+        if (task != null) {
+            task.cancel();
+        }
+        flush();
+    }
+
+    /**
+     * 모인 브로드캐스트를 합쳐 전송합니다.
+     */
+    private void flush() {
+        task = null;
+        if (pending.isEmpty()) return;
+
+        List<Component> lines = new ArrayList<>(pending.size());
+        pending.forEach((reward, names) -> lines.add(reward.render(summarize(names))));
+        pending.clear();
+
+        Bukkit.broadcast(Component.join(JoinConfiguration.newlines(), lines));
+    }
+
+    /**
+     * 당첨자 목록을 "A, B 외 3명" 형식으로 요약합니다.
+     */
+    private String summarize(List<String> names) {
+        if (names.size() == 1) return names.getFirst();
+
+        String separator = MessageUtil.getPlain("broadcast.separator", ", ");
+        int shown = Math.min(names.size(), maxNames);
+        String joined = String.join(separator, names.subList(0, shown));
+        if (shown == names.size()) return joined;
+
+        return MessageUtil.getPlain("broadcast.others", "{names} 외 {count}명")
+                .replace("{names}", joined)
+                .replace("{count}", String.valueOf(names.size() - shown));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.util.MessageTemplate;
+import com.github.maharong.randombox.util.MessageUtil;
+import net.kyori.adventure.text.Component;
+import com.github.maharong.randombox.RandomBox;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * BROADCAST 타입 보상: 서버 전체에 MiniMessage로 브로드캐스트 메시지 전송
+ * 같은 틱에 당첨된 브로드캐스트는 {@link BroadcastAggregator}에서 하나로 묶여 전송됩니다.
+ * <p>
+ * 메시지는 로딩 시 한 번만 컴파일해 두며, 같은 문구의 보상은 묶음 전송 시 하나로 취급됩니다. (문구 기준 equals)
+ */
+public final class BroadcastReward implements Reward {
+
+    private static final String PLAYER = "player";
+
+    private final String text;
+    private final MessageTemplate template;
+
+    /**
+     * @param text 메시지 (MiniMessage, {player} 치환 지원)
+     */
+    public BroadcastReward(String text) {
+        this.text = text;
+        this.template = MessageTemplate.compile(text);
+    }
+
+    @Override
+    public RewardType type() {
+        return RewardType.BROADCAST;
+    }
+
+    @Override
+    public void give(Player player) {
+        RandomBox.getInstance().getBroadcastAggregator().submit(this, player.getName());
+    }
+
+    @Override
+    public void giveOffline(UUID uuid) {
+        String name = Bukkit.getOfflinePlayer(uuid).getName();
+        RandomBox.getInstance().getBroadcastAggregator().submit(this, name != null ? name : uuid.toString());
+    }
+
+    /**
+     * 접두어가 붙은 브로드캐스트 메시지를 만듭니다.
+     *
+     * @param playerText {player} 자리에 들어갈 문자열 (여러 명이면 요약된 이름 목록)
+     * @return 전송할 메시지
+     */
+    Component render(String playerText) {
+        // 태그가 없는 이름 목록은 파싱 없이 텍스트 컴포넌트로 들어감
+        Component message = template.render(PLAYER, playerText);
+        return Component.text("")
+                .append(MessageUtil.prefix("box"))
+                .append(Component.space())
+                .append(message);
+    }
+
+    /**
+     * @return 원본 메시지
+     */
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BroadcastReward other && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "BroadcastReward[text=" + text + "]";
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.maharong.randombox.reward;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+
+/**
+ * COMMAND 보상의 콘솔 명령어를 대기열에 모아 틱당 시간 예산 안에서 나눠 실행하는 클래스입니다.
+ * 한 틱에 많은 명령어가 몰려도 서버 틱이 길어지지 않도록 분산합니다. 메인 스레드에서만 사용합니다.
+ */
+public class CommandDispatcher {
+
+    private final Plugin plugin;
+    private final long budgetNanos;
+    private final ArrayDeque<String> queue = new ArrayDeque<>();
+    private BukkitTask task;
+
+    /**
+     * @param plugin 작업을 등록할 플러그인
+     * @param budgetMillis 틱당 명령어 실행에 사용할 최대 시간 (ms)
+     */
+    public CommandDispatcher(Plugin plugin, double budgetMillis) {
+        this.plugin = plugin;
+        this.budgetNanos = (long) (Math.max(0.1, budgetMillis) * 1_000_000L);
+    }
+
+    /**
+     * 매 틱 대기열을 처리하는 작업을 시작합니다.
+     */
+    public void start() {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    /**
+     * 명령어를 대기열에 추가합니다. 작업이 시작되지 않았다면 즉시 실행합니다.
+     *
+     * @param command 실행할 콘솔 명령어
+     */
+    public void enqueue(String command) {
+        if (task == null) {
+            dispatch(command);
+            return;
+        }
+        queue.add(command);
+    }
+
+    /**
+     * @return 실행 대기 중인 명령어 수
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * 시간 예산이 남아 있는 동안 대기열의 명령어를 실행합니다. 매 틱 최소 한 개는 실행합니다.
+     */
+    private void drain() {
+        if (queue.isEmpty()) return;
+        long deadline = System.nanoTime() + budgetNanos;
+        do {
+            dispatch(queue.poll());
+        } while (!queue.isEmpty() && System.nanoTime() < deadline);
+    }
+
+    /**
+     * 작업을 멈추고 남은 명령어를 모두 실행합니다. 플러그인 비활성화 시 호출됩니다.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        String command;
+        while ((command = queue.poll()) != null) {
+            dispatch(command);
+        }
+    }
+
+    private void dispatch(String command) {
+        try {
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+        } catch (Exception e) {
+            Bukkit.getLogger().severe("[RandomBox] COMMAND 보상 실행 중 오류 발생: " + command + " → " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.RandomBox;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * COMMAND 타입 보상: 콘솔 명령어 실행, {player}는 대상 플레이어 이름으로 치환
+ * <p>
+ * 명령어는 로딩 시 {player} 기준으로 미리 나눠 두며, 실행은 {@link CommandDispatcher} 대기열을 거칩니다.
+ * 대상이 {player}인 {@code give}, {@code xp}/{@code experience add}, {@code effect give} 명령어는
+ * 명령어 처리기를 거치지 않고 API를 직접 호출하는 빠른 경로로 실행됩니다.
+ */
+public final class CommandReward implements Reward {
+
+    private static final String PLAYER = "{player}";
+
+    private final String command;
+    private final String[] parts;
+    private final Consumer<Player> fastPath;
+
+    /**
+     * @param command 실행할 명령어 (앞의 '/' 제외)
+     * @param allowFastPath 바닐라 명령어의 빠른 경로 사용 여부
+     */
+    public CommandReward(String command, boolean allowFastPath) {
+        this.command = command.startsWith("/") ? command.substring(1) : command;
+        this.parts = this.command.split("\\{player}", -1);
+        this.fastPath = allowFastPath ? compileFastPath(this.command) : null;
+    }
+
+    @Override
+    public RewardType type() {
+        return RewardType.COMMAND;
+    }
+
+    @Override
+    public void give(Player player) {
+        if (fastPath != null) {
+            fastPath.accept(player);
+            return;
+        }
+        RandomBox.getInstance().getCommandDispatcher().enqueue(render(player.getName()));
+    }
+
+    @Override
+    public void giveOffline(UUID uuid) {
+        // 대상이 접속해 있어야 하는 명령어가 많으므로 다음 접속 때 실행
+        RandomBox.getInstance().getPendingRewards().addCommand(uuid, command);
+    }
+
+    /**
+     * @return 원본 명령어
+     */
+    public String command() {
+        return command;
+    }
+
+    /**
+     * @return 빠른 경로로 실행되는 명령어이면 true
+     */
+    public boolean isFastPath() {
+        return fastPath != null;
+    }
+
+    /**
+     * 미리 나눠 둔 조각 사이에 플레이어 이름을 넣어 명령어를 완성합니다.
+     */
+    private String render(String playerName) {
+        if (parts.length == 1) return command;
+        StringBuilder builder = new StringBuilder(command.length() + playerName.length() * (parts.length - 1));
+        builder.append(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            builder.append(playerName).append(parts[i]);
+        }
+        return builder.toString();
+    }
+
+    // ------------------------------------------------------------------
+    // 바닐라 명령어 빠른 경로
+    // ------------------------------------------------------------------
+
+    /**
+     * 지원하는 바닐라 명령어이면 직접 실행하는 함수를, 아니면 null을 반환합니다.
+     */
+    private static Consumer<Player> compileFastPath(String command) {
+        String[] args = command.trim().split("\\s+");
+        if (args.length < 2) return null;
+
+        String label = args[0].toLowerCase();
+        if (label.startsWith("minecraft:")) label = label.substring("minecraft:".length());
+
+        try {
+            return switch (label) {
+                case "give" -> compileGive(args);
+                case "xp", "experience" -> compileExperience(args);
+                case "effect" -> compileEffect(args);
+                default -> null;
+            };
+        } catch (NumberFormatException e) {
+            // 숫자가 아닌 인수 → 일반 명령어로 실행
+            return null;
+        }
+    }
+
+    /**
+     * give {player} <아이템> [수량]
+     */
+    private static Consumer<Player> compileGive(String[] args) {
+        if (args.length < 3 || args.length > 4 || !args[1].equals(PLAYER)) return null;
+        // 컴포넌트/NBT가 붙은 아이템은 명령어 처리기에 맡긴다
+        if (args[2].indexOf('[') >= 0 || args[2].indexOf('{') >= 0) return null;
+
+        Material material = Material.matchMaterial(args[2]);
+        if (material == null || !material.isItem()) return null;
+        int count = args.length == 4 ? Integer.parseInt(args[3]) : 1;
+        if (count <= 0) return null;
+
+        // 인벤토리에 들어가지 않은 아이템은 ITEM 보상과 같이 우편함에 보관
+        return player -> RandomBox.getInstance().getMailbox().giveOrStore(player, new ItemStack(material, count));
+    }
+
+    /**
+     * xp add {player} <양> [points|levels]
+     */
+    private static Consumer<Player> compileExperience(String[] args) {
+        if (args.length < 4 || args.length > 5 || !args[1].equalsIgnoreCase("add") || !args[2].equals(PLAYER)) {
+            return null;
+        }
+        int amount = Integer.parseInt(args[3]);
+        String unit = args.length == 5 ? args[4].toLowerCase() : "points";
+
+        return switch (unit) {
+            case "points" -> player -> player.giveExp(amount);
+            case "levels" -> player -> player.giveExpLevels(amount);
+            default -> null;
+        };
+    }
+
+    /**
+     * effect give {player} <효과> [초|infinite] [증폭] [hideParticles]
+     */
+    private static Consumer<Player> compileEffect(String[] args) {
+        if (args.length < 4 || args.length > 7 || !args[1].equalsIgnoreCase("give") || !args[2].equals(PLAYER)) {
+            return null;
+        }
+        NamespacedKey key = NamespacedKey.fromString(args[3].toLowerCase());
+        PotionEffectType type = key == null ? null : Registry.EFFECT.get(key);
+        if (type == null) return null;
+
+        int duration;
+        if (args.length < 5) {
+            duration = 30 * 20;
+        } else if (args[4].equalsIgnoreCase("infinite")) {
+            duration = PotionEffect.INFINITE_DURATION;
+        } else {
+            duration = Integer.parseInt(args[4]) * 20;
+        }
+        int amplifier = args.length >= 6 ? Integer.parseInt(args[5]) : 0;
+        if (args.length == 7 && !args[6].equalsIgnoreCase("true") && !args[6].equalsIgnoreCase("false")) return null;
+        boolean hideParticles = args.length == 7 && Boolean.parseBoolean(args[6]);
+
+        PotionEffect effect = new PotionEffect(type, duration, amplifier, false, !hideParticles);
+        return player -> player.addPotionEffect(effect);
+    }
+}
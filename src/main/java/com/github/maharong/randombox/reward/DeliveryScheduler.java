@@ -0,0 +1,171 @@
+package com.github.maharong.randombox.reward;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 보상 지급 작업을 대기열에 모아 틱당 시간 예산 안에서 나눠 처리하는 스케줄러입니다.
+ * <p>
+ * 플레이어마다 별도의 FIFO 대기열을 두어 지급 순서를 보장하고, 대기 중인 플레이어를 번갈아 가며 처리합니다.
+ * 접속을 종료한 플레이어의 작업은 보관했다가 다시 접속하면 이어서 처리하며, 그 전에 플러그인이 종료되면
+ * 각 작업의 오프라인 처리(우편함, 보관 보상 등)로 넘겨 이미 개봉한 박스의 보상을 잃지 않도록 합니다.
+ * 메인 스레드에서만 사용합니다.
+ */
+public class DeliveryScheduler implements Listener {
+
+    /**
+     * 지급 작업
+     *
+     * @param online 접속 중인 플레이어에게 지급
+     * @param offline 종료 시점에 접속하지 않은 플레이어의 보상을 넘기는 처리
+     */
+    private record Delivery(Consumer<Player> online, Consumer<UUID> offline) {
+    }
+
+    private final Plugin plugin;
+    private final boolean enabled;
+    private final long budgetNanos;
+    private final Map<UUID, ArrayDeque<Delivery>> queues = new HashMap<>();
+    private final ArrayDeque<UUID> rotation = new ArrayDeque<>();
+    private int size;
+    private BukkitTask task;
+
+    /**
+     * @param plugin 작업을 등록할 플러그인
+     * @param enabled false이면 모든 작업을 즉시 실행합니다.
+     * @param budgetMillis 틱당 지급 처리에 사용할 최대 시간 (ms)
+     */
+    public DeliveryScheduler(Plugin plugin, boolean enabled, double budgetMillis) {
+        this.plugin = plugin;
+        this.enabled = enabled;
+        this.budgetNanos = (long) (Math.max(0.1, budgetMillis) * 1_000_000L);
+    }
+
+    public void start() {
+        if (!enabled) return;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    /**
+     * 플레이어에게 지급할 작업을 예약합니다.
+     *
+     * @param player 대상 플레이어
+     * @param action 지급 작업
+     * @param offline 지급 전에 플러그인이 종료되었고 플레이어가 접속해 있지 않을 때 보상을 넘기는 작업
+     */
+    public void submit(Player player, Consumer<Player> action, Consumer<UUID> offline) {
+        if (task == null) {
+            action.accept(player);
+            return;
+        }
+
+        UUID uuid = player.getUniqueId();
+        ArrayDeque<Delivery> queue = queues.computeIfAbsent(uuid, k -> new ArrayDeque<>());
+        if (queue.isEmpty()) {
+            rotation.add(uuid);
+        }
+        queue.add(new Delivery(action, offline));
+        size++;
+    }
+
+    /**
+     * @return 전체 대기 중인 지급 작업 수
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 대기 중인 작업이 있는 플레이어 수
+     */
+    public int players() {
+        return queues.size();
+    }
+
+    /**
+     * 시간 예산이 남아 있는 동안 플레이어를 번갈아 가며 한 작업씩 처리합니다.
+     */
+    private void drain() {
+        if (rotation.isEmpty()) return;
+        long deadline = System.nanoTime() + budgetNanos;
+        do {
+            UUID uuid = rotation.poll();
+            ArrayDeque<Delivery> queue = queues.get(uuid);
+            if (queue == null) continue;
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                // 오프라인: 재접속 시 다시 순환에 넣는다
+                continue;
+            }
+
+            run(player, queue.poll());
+            if (queue.isEmpty()) {
+                queues.remove(uuid);
+            } else {
+                rotation.add(uuid);
+            }
+        } while (!rotation.isEmpty() && System.nanoTime() < deadline);
+    }
+
+    private void run(Player player, Delivery delivery) {
+        size--;
+        try {
+            delivery.online().accept(player);
+        } catch (Exception e) {
+            Bukkit.getLogger().severe("[RandomBox] 보상 지급 중 오류 발생 (" + player.getName() + "): " + e.getMessage());
+        }
+    }
+
+    private void runOffline(UUID uuid, Delivery delivery) {
+        size--;
+        try {
+            delivery.offline().accept(uuid);
+        } catch (Exception e) {
+            Bukkit.getLogger().severe("[RandomBox] 오프라인 보상 보관 중 오류 발생 (" + uuid + "): " + e.getMessage());
+        }
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        if (queues.containsKey(uuid) && !rotation.contains(uuid)) {
+            rotation.add(uuid);
+        }
+    }
+
+    /**
+     * 작업을 멈추고 남은 작업을 모두 처리합니다. 플러그인 비활성화 시 호출됩니다.
+     * 접속 중인 플레이어에게는 바로 지급하고, 접속하지 않은 플레이어의 보상은 오프라인 처리로 넘깁니다.
+     * 우편함과 보관 보상 저장소가 닫히기 전에 호출해야 합니다.
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queues.forEach((uuid, queue) -> {
+            Player player = Bukkit.getPlayer(uuid);
+            while (!queue.isEmpty()) {
+                if (player != null) {
+                    run(player, queue.poll());
+                } else {
+                    runOffline(uuid, queue.poll());
+                }
+            }
+        });
+        queues.clear();
+        rotation.clear();
+    }
+}
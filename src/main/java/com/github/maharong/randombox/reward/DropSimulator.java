@@ -0,0 +1,112 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.box.BoxData;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 실제 추첨 코드({@link RewardSelector#drawIndex})로 대량의 모의 추첨을 수행하여
+ * 그룹별 관측 확률을 검증하는 클래스입니다.
+ * 추첨은 포크-조인 풀에서 병렬로 수행되며, 각 작업은 분할된 독립 난수 스트림을 사용합니다.
+ * 천장은 플레이어별 상태이므로 모의 추첨에는 적용되지 않습니다.
+ */
+public class DropSimulator {
+
+    /** 하나의 작업이 더 이상 분할하지 않고 직접 수행하는 추첨 횟수 */
+    private static final long CHUNK = 1L << 16;
+
+    /**
+     * 모의 추첨 결과
+     *
+     * @param draws 전체 추첨 횟수
+     * @param counts 그룹 인덱스별 당첨 횟수
+     * @param elapsedMillis 소요 시간 (ms)
+     */
+    public record Result(long draws, long[] counts, long elapsedMillis) {
+
+        /**
+         * @return 그룹의 관측 확률 (0~1)
+         */
+        public double observed(int group) {
+            return draws == 0 ? 0.0 : (double) counts[group] / draws;
+        }
+
+        /**
+         * Wilson 점수 구간으로 계산한 95% 신뢰구간을 반환합니다.
+         *
+         * @return {하한, 상한} (0~1)
+         */
+        public double[] confidence95(int group) {
+            if (draws == 0) return new double[]{0.0, 1.0};
+            double z = 1.959964;
+            double p = observed(group);
+            double n = draws;
+            double denominator = 1 + z * z / n;
+            double center = (p + z * z / (2 * n)) / denominator;
+            double margin = z * Math.sqrt(p * (1 - p) / n + z * z / (4 * n * n)) / denominator;
+            return new double[]{Math.max(0.0, center - margin), Math.min(1.0, center + margin)};
+        }
+    }
+
+    /**
+     * 메인 스레드를 막지 않고 포크-조인 풀에서 모의 추첨을 수행합니다.
+     *
+     * @param box 추첨할 박스
+     * @param draws 추첨 횟수
+     * @return 결과를 담은 Future (포크-조인 풀 스레드에서 완료됨)
+     */
+    public static CompletableFuture<Result> simulateAsync(BoxData box, long draws) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return CompletableFuture.supplyAsync(() -> simulate(box, draws), pool);
+    }
+
+    /**
+     * 현재 스레드에서 모의 추첨을 수행합니다. (내부적으로는 포크-조인 병렬 처리)
+     */
+    public static Result simulate(BoxData box, long draws) {
+        long start = System.nanoTime();
+        long[] counts = ForkJoinPool.commonPool().invoke(new DrawTask(box, new SplittableRandom(), 0, draws));
+        long elapsed = (System.nanoTime() - start) / 1_000_000L;
+        return new Result(draws, counts, elapsed);
+    }
+
+    private static final class DrawTask extends RecursiveTask<long[]> {
+        private final BoxData box;
+        private final SplittableRandom random;
+        private final long from;
+        private final long to;
+
+        private DrawTask(BoxData box, SplittableRandom random, long from, long to) {
+            this.box = box;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= CHUNK) {
+                long[] counts = new long[box.rewards().size()];
+                for (long i = from; i < to; i++) {
+                    int index = RewardSelector.drawIndex(box, random);
+                    if (index >= 0) counts[index]++;
+                }
+                return counts;
+            }
+
+            long mid = (from + to) >>> 1;
+            DrawTask left = new DrawTask(box, random.split(), from, mid);
+            DrawTask right = new DrawTask(box, random.split(), mid, to);
+            left.fork();
+            long[] counts = right.compute();
+            long[] other = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other[i];
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.RandomBox;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * EXP 타입 보상: 플레이어에게 경험치 지급
+ *
+ * @param amount 경험치 양
+ */
+public record ExpReward(int amount) implements Reward {
+
+    @Override
+    public RewardType type() {
+        return RewardType.EXP;
+    }
+
+    @Override
+    public void give(Player player) {
+        player.giveExp(amount);
+    }
+
+    @Override
+    public void giveOffline(UUID uuid) {
+        RandomBox.getInstance().getPendingRewards().addExp(uuid, amount);
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.RandomBox;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ITEM 타입 보상: 일반 또는 커스텀 아이템을 플레이어 인벤토리에 지급
+ * <p>
+ * 이름, 로어, 인챈트가 적용된 아이템은 로딩 시 한 번만 만들어 템플릿으로 보관하고,
+ * 지급할 때는 템플릿을 복제해서 사용합니다. 템플릿은 외부에 노출되지 않으므로 변경되지 않으며,
+ * {@code /randombox reload} 시 박스와 함께 새로 만들어집니다.
+ */
+public final class ItemReward implements Reward {
+
+    private final Material material;
+    private final int amount;
+    private final String name;
+    private final List<String> lore;
+    private final boolean shiny;
+    private final Map<Enchantment, Integer> enchants;
+    private final ItemStack template;
+
+    /**
+     * @param material 아이템 종류 (예: DIAMOND_SWORD)
+     * @param amount 수량
+     * @param name 아이템 이름 (MiniMessage, 없으면 null)
+     * @param lore 아이템 로어 (MiniMessage, 없으면 빈 목록)
+     * @param shiny 반짝임 효과 여부
+     * @param enchants 인챈트 → 레벨
+     */
+    public ItemReward(Material material, int amount, String name, List<String> lore,
+                      boolean shiny, Map<Enchantment, Integer> enchants) {
+        this.material = material;
+        this.amount = amount;
+        this.name = name;
+        this.lore = lore;
+        this.shiny = shiny;
+        this.enchants = enchants;
+        this.template = buildTemplate();
+    }
+
+    @Override
+    public RewardType type() {
+        return RewardType.ITEM;
+    }
+
+    @Override
+    public void give(Player player) {
+        // 인벤토리에 들어가지 않은 아이템은 우편함에 보관
+        RandomBox.getInstance().getMailbox().giveOrStore(player, createItem());
+    }
+
+    @Override
+    public void giveOffline(UUID uuid) {
+        RandomBox.getInstance().getMailbox().store(uuid, List.of(createItem()));
+    }
+
+    /**
+     * 템플릿을 복제하여 지급용 아이템을 만듭니다.
+     *
+     * @return 새 아이템 (설정된 수량)
+     */
+    public ItemStack createItem() {
+        return template.clone();
+    }
+
+    /**
+     * 템플릿을 복제하여 지정한 수량의 아이템을 만듭니다.
+     *
+     * @param count 수량
+     * @return 새 아이템
+     */
+    public ItemStack createItem(int count) {
+        ItemStack item = template.clone();
+        item.setAmount(count);
+        return item;
+    }
+
+    public Material material() {
+        return material;
+    }
+
+    public int amount() {
+        return amount;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<String> lore() {
+        return lore;
+    }
+
+    public boolean shiny() {
+        return shiny;
+    }
+
+    public Map<Enchantment, Integer> enchants() {
+        return enchants;
+    }
+
+    private ItemStack buildTemplate() {
+        ItemStack item = new ItemStack(material, amount);
+
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            MiniMessage mm = MiniMessage.miniMessage();
+
+            // 아이템 이름 지정 (MiniMessage 지원)
+            if (name != null) {
+                meta.displayName(mm.deserialize(name));
+            }
+
+            // 아이템 로어 지정
+            if (!lore.isEmpty()) {
+                List<Component> loreComponents = lore.stream()
+                        .map(mm::deserialize)
+                        .toList();
+                meta.lore(loreComponents);
+            }
+
+            // 반짝임 효과
+            if (shiny) {
+                meta.setEnchantmentGlintOverride(true);
+            }
+
+            // 인챈트 추가
+            enchants.forEach((enchant, level) -> meta.addEnchant(enchant, level, true));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.util.MessageTemplate;
+import com.github.maharong.randombox.util.MessageUtil;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * MESSAGE 타입 보상: 대상 플레이어에게 개인 메시지 전송
+ * <p>
+ * 메시지는 로딩 시 한 번만 MiniMessage로 컴파일해 두며, 지급할 때는 {player} 자리에 이름 컴포넌트만 끼워 넣습니다.
+ */
+public final class MessageReward implements Reward {
+
+    private static final String PLAYER = "player";
+
+    private final String text;
+    private final MessageTemplate template;
+
+    /**
+     * @param text 메시지 (MiniMessage, {player} 치환 지원)
+     */
+    public MessageReward(String text) {
+        this.text = text;
+        this.template = MessageTemplate.compile(text);
+    }
+
+    @Override
+    public RewardType type() {
+        return RewardType.MESSAGE;
+    }
+
+    @Override
+    public void give(Player player) {
+        Component message = template.render(PLAYER, Component.text(player.getName()));
+
+        // prefix 수동 부착 (미리 파싱된 접두어 사용)
+        player.sendMessage(Component.text("")
+                .append(MessageUtil.prefix("box"))
+                .append(Component.space())
+                .append(message));
+    }
+
+    @Override
+    public void giveOffline(UUID uuid) {
+        // 당첨 안내 메시지는 받을 사람이 없으므로 보관하지 않음
+    }
+
+    /**
+     * @return 원본 메시지
+     */
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MessageReward other && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "MessageReward[text=" + text + "]";
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.util.MessageUtil;
+import com.github.maharong.randombox.util.VaultUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * MONEY 타입 보상: Vault를 통해 플레이어에게 돈 지급
+ *
+ * @param amount 지급 금액
+ */
+public record MoneyReward(double amount) implements Reward {
+
+    @Override
+    public RewardType type() {
+        return RewardType.MONEY;
+    }
+
+    @Override
+    public void give(Player player) {
+        give(player, amount);
+    }
+
+    /**
+     * Vault를 통해 지정한 금액을 지급합니다. 여러 MONEY 보상을 합산해 한 번에 지급할 때도 사용합니다.
+     *
+     * @param player 대상 플레이어
+     * @param amount 지급 금액
+     */
+    static void give(Player player, double amount) {
+        if (!VaultUtil.isEnabled()) {
+            player.sendMessage(MessageUtil.get("plugin.vault-missing", Map.of()));
+            Bukkit.getLogger().warning("Vault 미탑재 상태에서 MONEY 보상이 무시됩니다.");
+            return; // 보상 미지급
+        }
+        VaultUtil.give(player, amount);
+    }
+
+    @Override
+    public void giveOffline(UUID uuid) {
+        give(uuid, amount);
+    }
+
+    /**
+     * 접속하지 않은 플레이어에게 Vault 오프라인 입금으로 지급합니다.
+     *
+     * @param uuid 대상 플레이어 UUID
+     * @param amount 지급 금액
+     */
+    static void give(UUID uuid, double amount) {
+        if (!VaultUtil.isEnabled()) {
+            Bukkit.getLogger().warning("Vault 미탑재 상태에서 MONEY 보상이 무시됩니다. (" + uuid + ")");
+            return;
+        }
+        VaultUtil.give(uuid, amount);
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.maharong.randombox.reward;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 접속하지 않은 플레이어에게 바로 줄 수 없는 경험치와 COMMAND 보상을 보관했다가 다음 접속 시 지급합니다.
+ * <p>
+ * 아이템은 우편함이, MONEY는 Vault 오프라인 입금이 맡으므로 여기에는 들어오지 않습니다.
+ * 보관 내용은 {@code pending-rewards.yml}에 저장되며, 메인 스레드에서만 사용합니다.
+ */
+public class PendingRewards implements Listener {
+
+    /**
+     * 한 플레이어의 보관 보상
+     */
+    private static final class Entry {
+        private int exp;
+        private final List<String> commands = new ArrayList<>();
+    }
+
+    private final Plugin plugin;
+    private final File file;
+    private final Map<UUID, Entry> entries = new LinkedHashMap<>();
+
+    public PendingRewards(Plugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "pending-rewards.yml");
+    }
+
+    /**
+     * 저장된 보관 보상을 불러옵니다.
+     */
+    public void load() {
+        if (!file.exists()) return;
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        for (String key : config.getKeys(false)) {
+            ConfigurationSection section = config.getConfigurationSection(key);
+            if (section == null) continue;
+            try {
+                Entry entry = entries.computeIfAbsent(UUID.fromString(key), k -> new Entry());
+                entry.exp += section.getInt("exp", 0);
+                entry.commands.addAll(section.getStringList("commands"));
+            } catch (IllegalArgumentException e) {
+                Bukkit.getLogger().warning("[RandomBox] pending-rewards.yml 의 잘못된 UUID를 건너뜁니다: " + key);
+            }
+        }
+    }
+
+    /**
+     * 경험치를 보관합니다.
+     *
+     * @param uuid 대상 플레이어 UUID
+     * @param amount 경험치 양
+     */
+    public void addExp(UUID uuid, int amount) {
+        if (amount == 0) return;
+        entries.computeIfAbsent(uuid, k -> new Entry()).exp += amount;
+    }
+
+    /**
+     * COMMAND 보상을 보관합니다. 명령어는 지급 시점의 플레이어 이름으로 치환됩니다.
+     *
+     * @param uuid 대상 플레이어 UUID
+     * @param command 원본 명령어 ({player} 포함)
+     */
+    public void addCommand(UUID uuid, String command) {
+        entries.computeIfAbsent(uuid, k -> new Entry()).commands.add(command);
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        if (!entries.containsKey(player.getUniqueId())) return;
+
+        // 접속 직후 플레이어 데이터가 로드될 시간을 두고 지급
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (!player.isOnline()) return;
+            Entry entry = entries.remove(player.getUniqueId());
+            if (entry == null) return;
+
+            if (entry.exp != 0) {
+                player.giveExp(entry.exp);
+            }
+            for (String command : entry.commands) {
+                new CommandReward(command, false).give(player);
+            }
+            save();
+        }, 20L);
+    }
+
+    /**
+     * 보관 중인 보상을 파일에 기록합니다. 플러그인 비활성화 시에도 호출됩니다.
+     */
+    public void save() {
+        if (entries.isEmpty()) {
+            if (file.exists() && !file.delete()) {
+                Bukkit.getLogger().warning("[RandomBox] pending-rewards.yml 을 삭제하지 못했습니다.");
+            }
+            return;
+        }
+
+        YamlConfiguration config = new YamlConfiguration();
+        entries.forEach((uuid, entry) -> {
+            if (entry.exp != 0) config.set(uuid + ".exp", entry.exp);
+            if (!entry.commands.isEmpty()) config.set(uuid + ".commands", entry.commands);
+        });
+        try {
+            config.save(file);
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] pending-rewards.yml 저장 중 오류 발생: " + e.getMessage());
+        }
+    }
+}
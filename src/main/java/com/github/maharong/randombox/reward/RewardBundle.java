@@ -0,0 +1,111 @@
+package com.github.maharong.randombox.reward;
+
+import com.github.maharong.randombox.RandomBox;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 여러 번의 추첨 결과를 모아 한 번에 지급하는 보상 묶음입니다.
+ * 같은 ITEM 보상은 수량을 합치고, EXP/MONEY 보상은 합산하여 한 번만 지급합니다.
+ * COMMAND 보상은 당첨 횟수만큼 실행하며, MESSAGE/BROADCAST 보상은 당첨된 그룹마다 한 번만 전송합니다.
+ */
+public class RewardBundle {
+
+    private final List<ItemStack> items = new ArrayList<>();
+    private final Map<Reward, Integer> repeated = new LinkedHashMap<>();
+    private final List<Reward> once = new ArrayList<>();
+    private int exp;
+    private double money;
+
+    /**
+     * 보상 그룹을 지정한 횟수만큼 묶음에 추가합니다.
+     *
+     * @param group 당첨된 보상 그룹
+     * @param times 당첨 횟수
+     */
+    public void add(RewardGroup group, int times) {
+        if (times <= 0) return;
+        for (Reward reward : group.rewards()) {
+            switch (reward) {
+                case ItemReward item -> addItem(item, times);
+                case ExpReward expReward -> exp += expReward.amount() * times;
+                case MoneyReward moneyReward -> money += moneyReward.amount() * times;
+                case CommandReward command -> repeated.merge(command, times, Integer::sum);
+                case BroadcastReward broadcast -> once.add(broadcast);
+                case MessageReward message -> once.add(message);
+            }
+        }
+    }
+
+    private void addItem(ItemReward reward, int times) {
+        int amount = reward.amount() * times;
+        ItemStack item = reward.createItem(amount);
+        for (ItemStack stack : items) {
+            if (stack.isSimilar(item)) {
+                stack.setAmount(stack.getAmount() + amount);
+                return;
+            }
+        }
+        items.add(item);
+    }
+
+    /**
+     * 묶인 보상을 플레이어에게 지급합니다.
+     * 아이템은 한 번의 인벤토리 삽입으로 지급됩니다.
+     *
+     * @param player 대상 플레이어
+     */
+    public void deliver(Player player) {
+        if (!items.isEmpty()) {
+            // addItem은 최대 스택 크기에 맞춰 나눠서 삽입하며, 남는 아이템은 우편함에 보관한다
+            RandomBox.getInstance().getMailbox().giveOrStore(player, items.toArray(new ItemStack[0]));
+        }
+        if (exp != 0) {
+            player.giveExp(exp);
+        }
+        if (money != 0.0) {
+            MoneyReward.give(player, money);
+        }
+        repeated.forEach((reward, times) -> {
+            for (int i = 0; i < times; i++) {
+                reward.give(player);
+            }
+        });
+        for (Reward reward : once) {
+            reward.give(player);
+        }
+    }
+
+    /**
+     * 묶인 보상을 접속하지 않은 플레이어에게 넘깁니다.
+     * 아이템은 우편함에 보관하고, 나머지는 각 보상의 {@link Reward#giveOffline(UUID)}를 따릅니다.
+     *
+     * @param uuid 대상 플레이어 UUID
+     */
+    public void deliverOffline(UUID uuid) {
+        RandomBox plugin = RandomBox.getInstance();
+        if (!items.isEmpty()) {
+            plugin.getMailbox().store(uuid, items);
+        }
+        if (exp != 0) {
+            plugin.getPendingRewards().addExp(uuid, exp);
+        }
+        if (money != 0.0) {
+            MoneyReward.give(uuid, money);
+        }
+        repeated.forEach((reward, times) -> {
+            for (int i = 0; i < times; i++) {
+                reward.giveOffline(uuid);
+            }
+        });
+        for (Reward reward : once) {
+            reward.giveOffline(uuid);
+        }
+    }
+}
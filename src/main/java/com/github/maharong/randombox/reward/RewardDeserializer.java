@@ -1,10 +1,21 @@
 package com.github.maharong.randombox.reward;
 
+import com.github.maharong.randombox.RandomBox;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.enchantments.Enchantment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 리워드 정보를 YML에서 로드된 Map 형태로부터 파싱하여
- * Reward 객체로 변환하는 유틸리티 클래스입니다.
+ * 타입별 {@link Reward} 객체로 변환하는 유틸리티 클래스입니다.
+ * 모든 형 변환과 검증은 이 단계에서 끝나므로, 지급 시에는 오류가 발생하지 않습니다.
  */
 public class RewardDeserializer {
 
@@ -13,13 +24,12 @@ public class RewardDeserializer {
      *
      * @param map 리워드 정보를 담고 있는 Map (box.yml에서 로드됨)
      * @return 변환된 Reward 인스턴스
-     * @throws IllegalArgumentException 필수 키 누락 또는 지원되지 않는 타입일 경우 발생
+     * @throws IllegalArgumentException 필수 키 누락, 잘못된 값 또는 지원되지 않는 타입일 경우 발생
      */
     public static Reward fromMap(Map<String, Object> map) {
         if (!map.containsKey("type"))
             throw new IllegalArgumentException("리워드 항목에 'type'이 존재하지 않습니다.");
 
-        // type을 분리하고, 나머지는 data로 넘김
         RewardType type;
         try {
             type = RewardType.valueOf(String.valueOf(map.get("type")).toUpperCase());
@@ -27,9 +37,82 @@ public class RewardDeserializer {
             throw new IllegalArgumentException("지원하지 않는 리워드 타입입니다: " + map.get("type"));
         }
 
-        // 복사본에서 type 제거 (data 맵에서)
-        map.remove("type");
+        return switch (type) {
+            case ITEM -> parseItem(map);
+            case MONEY -> new MoneyReward(getNumber(map, "amount", 0).doubleValue());
+            case EXP -> new ExpReward(getNumber(map, "amount", 0).intValue());
+            case COMMAND -> new CommandReward(getString(map, "command"),
+                    RandomBox.getInstance().getConfig().getBoolean("command.native-fast-path", true));
+            case BROADCAST -> new BroadcastReward(getString(map, "text"));
+            case MESSAGE -> new MessageReward(getString(map, "text"));
+        };
+    }
+
+    private static ItemReward parseItem(Map<String, Object> map) {
+        String itemId = getString(map, "item");
+        Material material = Material.matchMaterial(itemId);
+        if (material == null || !material.isItem()) {
+            throw new IllegalArgumentException("잘못된 아이템(material) 형식입니다: " + itemId);
+        }
+
+        int amount = getNumber(map, "amount", 1).intValue();
+        if (amount <= 0) {
+            throw new IllegalArgumentException("아이템 수량은 1 이상이어야 합니다: " + amount);
+        }
+
+        Object nameObj = map.get("name");
+        String name = nameObj == null ? null : String.valueOf(nameObj);
 
-        return new Reward(type, map);
+        List<String> lore = new ArrayList<>();
+        Object loreObj = map.get("lore");
+        if (loreObj instanceof List<?> list) {
+            for (Object line : list) {
+                lore.add(String.valueOf(line));
+            }
+        } else if (loreObj != null) {
+            throw new IllegalArgumentException("'lore' 항목은 리스트 형식이어야 합니다.");
+        }
+
+        Object shinyObj = map.getOrDefault("shiny", false);
+        if (!(shinyObj instanceof Boolean shiny)) {
+            throw new IllegalArgumentException("'shiny' 항목은 true/false 여야 합니다: " + shinyObj);
+        }
+
+        Map<Enchantment, Integer> enchants = new LinkedHashMap<>();
+        Object enchantObj = map.get("enchant");
+        if (enchantObj instanceof Map<?, ?> enchantMap) {
+            for (Map.Entry<?, ?> entry : enchantMap.entrySet()) {
+                String enchantName = String.valueOf(entry.getKey()).toLowerCase();
+                Enchantment enchant = Registry.ENCHANTMENT.get(NamespacedKey.minecraft(enchantName));
+                if (enchant == null) {
+                    throw new IllegalArgumentException("존재하지 않는 인챈트입니다: " + enchantName);
+                }
+                if (!(entry.getValue() instanceof Number level)) {
+                    throw new IllegalArgumentException("인챈트 레벨은 숫자여야 합니다: " + enchantName);
+                }
+                enchants.put(enchant, level.intValue());
+            }
+        } else if (enchantObj != null) {
+            throw new IllegalArgumentException("'enchant' 항목은 Map 형식이어야 합니다.");
+        }
+
+        return new ItemReward(material, amount, name, List.copyOf(lore), shiny,
+                Collections.unmodifiableMap(enchants));
+    }
+
+    private static String getString(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("'" + key + "' 항목이 존재하지 않습니다.");
+        }
+        return String.valueOf(value);
+    }
+
+    private static Number getNumber(Map<String, Object> map, String key, Number defaultValue) {
+        Object value = map.getOrDefault(key, defaultValue);
+        if (!(value instanceof Number number)) {
+            throw new IllegalArgumentException("'" + key + "' 항목은 숫자여야 합니다: " + value);
+        }
+        return number;
     }
 }
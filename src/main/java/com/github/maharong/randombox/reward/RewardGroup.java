@@ -1,5 +1,6 @@
 package com.github.maharong.randombox.reward;
 
+import com.github.maharong.randombox.RandomBox;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
@@ -12,8 +13,13 @@ import java.util.Map;
  *
  * @param chance 확률 (%)
  * @param rewards 실제 보상 리스트
+ * @param pity 천장 횟수. 이 횟수 안에 반드시 이 그룹이 당첨됩니다. (0이면 천장 없음)
  */
-public record RewardGroup(double chance, List<Reward> rewards, List<Reward> defaultRewards) {
+public record RewardGroup(double chance, List<Reward> rewards, List<Reward> defaultRewards, int pity) {
+
+    public RewardGroup(double chance, List<Reward> rewards, List<Reward> defaultRewards) {
+        this(chance, rewards, defaultRewards, 0);
+    }
 
     /**
      * Yaml에서 RewardGroup을 생성합니다.
@@ -23,6 +29,10 @@ public record RewardGroup(double chance, List<Reward> rewards, List<Reward> defa
     @SuppressWarnings("unchecked")
     public static RewardGroup fromMap(Map<String, Object> section) {
         double chance = ((Number) section.getOrDefault("chance", 0)).doubleValue();
+        int pity = ((Number) section.getOrDefault("pity", 0)).intValue();
+        if (pity < 0) {
+            throw new IllegalArgumentException("'pity' 값은 0 이상이어야 합니다: " + pity);
+        }
         // rewards 섹션 null 방지
         List<Map<String, Object>> rawList = (List<Map<String, Object>>) section.get("rewards");
         if (rawList == null) {
@@ -58,12 +68,18 @@ public record RewardGroup(double chance, List<Reward> rewards, List<Reward> defa
             }
         }
 
-        return new RewardGroup(chance, rewards, defaultRewards);
+        return new RewardGroup(chance, rewards, defaultRewards, pity);
     }
 
+    /**
+     * 그룹의 모든 보상을 지급 스케줄러에 예약합니다. 순서는 보상 목록 순서를 따릅니다.
+     *
+     * @param player 대상 플레이어
+     */
     public void giveAll(Player player) {
+        DeliveryScheduler scheduler = RandomBox.getInstance().getDeliveryScheduler();
         for (Reward reward : rewards) {
-            reward.give(player);
+            scheduler.submit(player, reward::give, reward::giveOffline);
         }
     }
 }
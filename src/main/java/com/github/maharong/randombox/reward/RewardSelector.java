@@ -1,33 +1,210 @@
 package com.github.maharong.randombox.reward;
 
+import com.github.maharong.randombox.box.BoxData;
+import com.github.maharong.randombox.pity.PityCounters;
+import com.github.maharong.randombox.pity.PityStore;
+import com.github.maharong.randombox.random.PityHit;
+import com.github.maharong.randombox.random.RandomProvider;
+import com.github.maharong.randombox.random.ThreadLocalRandomProvider;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
 
 /**
  * 리워드 그룹 리스트에서 확률 기반으로 하나를 추첨하는 유틸 클래스
  */
 public class RewardSelector {
 
+    private static volatile RandomProvider provider = new ThreadLocalRandomProvider();
+    private static volatile PityStore pityStore;
+
+    /**
+     * 추첨에 사용할 난수 공급자를 교체합니다.
+     *
+     * @param randomProvider 새 난수 공급자
+     */
+    public static void setProvider(RandomProvider randomProvider) {
+        provider = randomProvider;
+    }
+
+    public static RandomProvider getProvider() {
+        return provider;
+    }
+
     /**
-     * 전체 그룹 중 하나를 확률 기반으로 추첨합니다.
+     * 천장 카운터 저장소를 지정합니다. null이면 천장을 적용하지 않습니다.
      *
-     * @param groups 리워드 그룹 리스트
+     * @param store 천장 카운터 저장소
+     */
+    public static void setPityStore(PityStore store) {
+        pityStore = store;
+    }
+
+    /**
+     * 박스에 미리 계산된 별칭 테이블을 이용해 그룹 하나를 추첨합니다.
+     * 그룹 수와 무관하게 상수 시간에 동작하며, 천장에 도달한 그룹이 있으면 해당 그룹이 당첨됩니다.
+     *
+     * @param box 추첨할 박스
      * @param player 대상 플레이어
-     * @return 추첨된 그룹 (없으면 null)
+     * @return 추첨된 그룹 (추첨 가능한 그룹이 없으면 null)
+     */
+    public static RewardGroup draw(BoxData box, Player player) {
+        int index = drawIndex(box, player);
+        return index < 0 ? null : box.rewards().get(index);
+    }
+
+    /**
+     * {@link #draw(BoxData, Player)}와 같이 추첨하되, 당첨된 그룹의 인덱스를 반환합니다.
+     * 내용이 같은 그룹이 여러 개여도 실제로 추첨된 위치를 알 수 있습니다.
+     *
+     * @param box 추첨할 박스
+     * @param player 대상 플레이어
+     * @return 추첨된 그룹 인덱스 (box.rewards() 기준, 꽝이면 -1)
+     */
+    public static int drawIndex(BoxData box, Player player) {
+        RandomProvider current = provider;
+        RandomGenerator random = current.open(player, box);
+        PityCounters counters = pityCounters(box, player);
+        int raw = drawIndex(box, random);
+        int index = applyPity(box, raw, counters);
+        if (counters != null) {
+            pityStore.markDirty(player.getUniqueId(), counters);
+        }
+        current.complete(player, box, random, 1, index, index == raw ? List.of() : List.of(new PityHit(1, index)));
+        return index;
+    }
+
+    /**
+     * 같은 박스를 여러 번 한꺼번에 추첨하여 그룹별 당첨 횟수를 반환합니다.
+     * 한 번의 난수 스트림으로 모든 추첨을 수행합니다.
+     *
+     * @param box 추첨할 박스
+     * @param player 대상 플레이어
+     * @param times 추첨 횟수
+     * @return 그룹 인덱스별 당첨 횟수 (box.rewards()와 같은 순서)
+     */
+    public static int[] drawMany(BoxData box, Player player, int times) {
+        RandomProvider current = provider;
+        RandomGenerator random = current.open(player, box);
+        PityCounters counters = pityCounters(box, player);
+        int[] counts = new int[box.rewards().size()];
+        List<PityHit> pityHits = null;
+        for (int i = 0; i < times; i++) {
+            int raw = drawIndex(box, random);
+            int index = applyPity(box, raw, counters);
+            if (index != raw) {
+                if (pityHits == null) pityHits = new ArrayList<>();
+                pityHits.add(new PityHit(i + 1, index));
+            }
+            if (index >= 0) {
+                counts[index]++;
+            }
+        }
+        if (counters != null) {
+            pityStore.markDirty(player.getUniqueId(), counters);
+        }
+        current.complete(player, box, random, times, -1, pityHits == null ? List.of() : pityHits);
+        return counts;
+    }
+
+    /**
+     * 주어진 난수 생성기로 여러 번 추첨하여 그룹별 당첨 횟수를 반환합니다.
+     *
+     * @param box 추첨할 박스
+     * @param random 사용할 난수 생성기
+     * @param times 추첨 횟수
+     * @return 그룹 인덱스별 당첨 횟수
+     */
+    public static int[] drawCounts(BoxData box, RandomGenerator random, int times) {
+        return drawCounts(box, random, times, List.of());
+    }
+
+    /**
+     * 주어진 난수 생성기로 여러 번 추첨하되, 기록된 천장 당첨은 기록된 그룹으로 바꿔 집계합니다.
+     * rolls.log의 시드와 천장 기록으로 개봉 당시 결과를 재현할 때 사용합니다.
+     *
+     * @param box 추첨할 박스
+     * @param random 사용할 난수 생성기
+     * @param times 추첨 횟수
+     * @param pityHits 천장으로 결과가 바뀐 추첨 목록
+     * @return 그룹 인덱스별 당첨 횟수
+     * @throws IllegalArgumentException 천장 기록이 이 박스의 그룹 범위를 벗어난 경우
      */
-    public static RewardGroup draw(List<RewardGroup> groups, Player player) {
-        double roll = Math.random() * 100;
-        double cumulative = 0.0;
+    public static int[] drawCounts(BoxData box, RandomGenerator random, int times, List<PityHit> pityHits) {
+        int[] counts = new int[box.rewards().size()];
+        Map<Integer, Integer> forced = new HashMap<>();
+        for (PityHit hit : pityHits) {
+            if (hit.group() < 0 || hit.group() >= counts.length) {
+                throw new IllegalArgumentException("천장 기록의 그룹 번호가 범위를 벗어났습니다: " + hit.group());
+            }
+            forced.put(hit.draw(), hit.group());
+        }
 
-        for (RewardGroup group : groups) {
-            cumulative += group.chance();
-            if (roll <= cumulative) {
-                return group;
+        for (int i = 0; i < times; i++) {
+            // 천장 당첨이어도 난수는 개봉 당시와 똑같이 소비한다
+            int index = drawIndex(box, random);
+            index = forced.getOrDefault(i + 1, index);
+            if (index >= 0) {
+                counts[index]++;
             }
         }
+        return counts;
+    }
+
+    /**
+     * 천장이 설정된 박스일 때만 플레이어의 카운터를 조회합니다.
+     */
+    private static PityCounters pityCounters(BoxData box, Player player) {
+        PityStore store = pityStore;
+        if (store == null || box.pityGroups().length == 0) return null;
+        return store.counters(player.getUniqueId());
+    }
 
-        // 꽝일 경우
-        return null;
+    /**
+     * 추첨 결과에 천장 카운터를 반영하고 카운터를 갱신합니다.
+     * 재현 시 난수 스트림이 어긋나지 않도록 천장 당첨 여부와 관계없이 난수는 항상 먼저 소비합니다.
+     *
+     * @return 최종 그룹 인덱스 (천장에 도달한 그룹이 있으면 해당 그룹)
+     */
+    private static int applyPity(BoxData box, int raw, PityCounters counters) {
+        int index = raw;
+        if (counters == null) return index;
+
+        int[] pityGroups = box.pityGroups();
+        int base = box.pityBase();
+        List<RewardGroup> groups = box.rewards();
+
+        // 천장에 도달한 그룹이 있으면 강제 당첨
+        for (int k = 0; k < pityGroups.length; k++) {
+            if (counters.get(base + k) + 1 >= groups.get(pityGroups[k]).pity()) {
+                index = pityGroups[k];
+                break;
+            }
+        }
+
+        for (int k = 0; k < pityGroups.length; k++) {
+            if (pityGroups[k] == index) {
+                counters.reset(base + k);
+            } else {
+                counters.increment(base + k);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 주어진 난수 생성기로 그룹 인덱스 하나를 추첨합니다.
+     * 시드 재현 등 플레이어 없이 추첨해야 할 때 사용합니다. 천장은 적용되지 않습니다.
+     *
+     * @param box 추첨할 박스
+     * @param random 사용할 난수 생성기
+     * @return 추첨된 그룹 인덱스 (없으면 -1)
+     */
+    public static int drawIndex(BoxData box, RandomGenerator random) {
+        return box.sampler().sample(random.nextDouble());
     }
 }
@@ -0,0 +1,204 @@
+package com.github.maharong.randombox.util;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * MONEY 보상 입금을 모아 비동기로 한꺼번에 처리하는 파이프라인입니다.
+ * <p>
+ * 개봉 시에는 잠금 없는 큐에 입금 요청만 추가하고, 주기적인 비동기 작업에서
+ * 플레이어별로 금액을 합산해 한 번씩 {@link Economy#depositPlayer}를 호출합니다.
+ * 실패한 입금은 정해진 횟수만큼 다음 주기에 다시 시도하며, 플러그인 비활성화 시 남은 입금을 모두 처리합니다.
+ * 재시도 횟수를 모두 쓴 입금은 {@code failed-deposits.yml}에 보관했다가 다음 서버 시작 시 다시 입금합니다.
+ * 파일에서 다시 불러온 입금은 성공하거나 다시 최종 실패로 옮겨질 때까지 파일에 남겨 둡니다.
+ */
+public class EconomyPipeline {
+
+    /**
+     * @param reloaded failed-deposits.yml 에서 다시 불러온 입금이면 true
+     */
+    private record Deposit(UUID uuid, double amount, int attempts, boolean reloaded) {
+    }
+
+    /**
+     * 합산 단위: 같은 플레이어라도 재시도 횟수나 출처가 다른 입금은 따로 합산한다
+     */
+    private record Key(UUID uuid, int attempts, boolean reloaded) {
+    }
+
+    private final Plugin plugin;
+    private final Economy economy;
+    private final int maxRetries;
+    private final File failedFile;
+    private final ConcurrentLinkedQueue<Deposit> queue = new ConcurrentLinkedQueue<>();
+    // flush 안에서만 접근 (synchronized)
+    private final Map<UUID, Double> failed = new LinkedHashMap<>();
+    // 파일에서 불러와 아직 처리 중인 금액 (성공 전까지 파일에 유지)
+    private final Map<UUID, Double> reloaded = new LinkedHashMap<>();
+    private BukkitTask task;
+
+    public EconomyPipeline(Plugin plugin, Economy economy, int maxRetries) {
+        this.plugin = plugin;
+        this.economy = economy;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.failedFile = new File(plugin.getDataFolder(), "failed-deposits.yml");
+    }
+
+    /**
+     * 이전에 최종 실패한 입금을 다시 예약하고, 주기적인 비동기 입금 작업을 시작합니다.
+     *
+     * @param intervalTicks 입금 주기 (틱)
+     */
+    public void start(long intervalTicks) {
+        loadFailed();
+        task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * 입금을 예약합니다. 어느 스레드에서나 호출할 수 있습니다.
+     *
+     * @param uuid 대상 플레이어 UUID
+     * @param amount 금액
+     */
+    public void deposit(UUID uuid, double amount) {
+        if (amount == 0.0) return;
+        queue.add(new Deposit(uuid, amount, 0, false));
+    }
+
+    /**
+     * @return 처리 대기 중인 입금 요청 수
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * 대기 중인 입금을 플레이어별로 합산하여 처리합니다.
+     */
+    public synchronized void flush() {
+        if (queue.isEmpty()) return;
+
+        // 플레이어와 재시도 횟수별 합산 (새 입금이 재시도 중인 입금의 횟수를 물려받지 않도록)
+        Map<Key, Double> merged = new LinkedHashMap<>();
+        Deposit deposit;
+        while ((deposit = queue.poll()) != null) {
+            merged.merge(new Key(deposit.uuid(), deposit.attempts(), deposit.reloaded()), deposit.amount(), Double::sum);
+        }
+
+        boolean changed = false;
+        for (Map.Entry<Key, Double> entry : merged.entrySet()) {
+            Key key = entry.getKey();
+            UUID uuid = key.uuid();
+            double amount = entry.getValue();
+            if (amount == 0.0) continue;
+
+            String error;
+            try {
+                OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
+                EconomyResponse response = economy.depositPlayer(player, amount);
+                if (response.transactionSuccess()) {
+                    if (key.reloaded()) {
+                        subtract(reloaded, uuid, amount);
+                        changed = true;
+                    }
+                    continue;
+                }
+                error = response.errorMessage;
+            } catch (Exception e) {
+                error = e.getMessage();
+            }
+
+            if (key.attempts() < maxRetries) {
+                // 불러온 입금은 재시도 중에도 파일에 남아 있음
+                queue.add(new Deposit(uuid, amount, key.attempts() + 1, key.reloaded()));
+                Bukkit.getLogger().warning("[RandomBox] MONEY 입금 실패, 다음 주기에 재시도합니다 ("
+                        + uuid + ", " + amount + "): " + error);
+            } else {
+                if (key.reloaded()) {
+                    subtract(reloaded, uuid, amount);
+                }
+                failed.merge(uuid, amount, Double::sum);
+                changed = true;
+                Bukkit.getLogger().severe("[RandomBox] MONEY 입금 최종 실패, failed-deposits.yml 에 보관합니다 ("
+                        + uuid + ", " + amount + "): " + error);
+            }
+        }
+        if (changed) {
+            saveFailed();
+        }
+    }
+
+    private static void subtract(Map<UUID, Double> amounts, UUID uuid, double amount) {
+        Double left = amounts.computeIfPresent(uuid, (key, value) -> value - amount);
+        if (left != null && Math.abs(left) < 1e-9) {
+            amounts.remove(uuid);
+        }
+    }
+
+    /**
+     * failed-deposits.yml 에 보관된 입금을 새 입금으로 다시 예약합니다.
+     */
+    private synchronized void loadFailed() {
+        if (!failedFile.exists()) return;
+
+        ConfigurationSection section = YamlConfiguration.loadConfiguration(failedFile).getConfigurationSection("deposits");
+        if (section == null) return;
+        for (String key : section.getKeys(false)) {
+            try {
+                UUID uuid = UUID.fromString(key);
+                double amount = section.getDouble(key);
+                reloaded.merge(uuid, amount, Double::sum);
+                queue.add(new Deposit(uuid, amount, 0, true));
+            } catch (IllegalArgumentException e) {
+                Bukkit.getLogger().warning("[RandomBox] failed-deposits.yml 의 잘못된 UUID를 건너뜁니다: " + key);
+            }
+        }
+        Bukkit.getLogger().info("[RandomBox] 이전에 실패한 MONEY 입금 " + section.getKeys(false).size() + "건을 다시 시도합니다.");
+        // 파일은 그대로 두고, 불러온 입금이 성공하거나 최종 실패로 옮겨질 때마다 다시 기록한다
+    }
+
+    /**
+     * 최종 실패한 입금과 아직 처리 중인 불러온 입금을 failed-deposits.yml 에 기록합니다. flush 안에서만 호출합니다.
+     */
+    private void saveFailed() {
+        Map<UUID, Double> pending = new LinkedHashMap<>(reloaded);
+        failed.forEach((uuid, amount) -> pending.merge(uuid, amount, Double::sum));
+        if (pending.isEmpty()) {
+            if (failedFile.exists() && !failedFile.delete()) {
+                Bukkit.getLogger().warning("[RandomBox] failed-deposits.yml 을 삭제하지 못했습니다.");
+            }
+            return;
+        }
+        YamlConfiguration config = new YamlConfiguration();
+        pending.forEach((uuid, amount) -> config.set("deposits." + uuid, amount));
+        try {
+            config.save(failedFile);
+        } catch (IOException e) {
+            Bukkit.getLogger().severe("[RandomBox] failed-deposits.yml 저장 중 오류 발생: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 작업을 멈추고 남은 입금을 모두 처리합니다. 플러그인 비활성화 시 호출됩니다.
+     */
+    public void shutdown() {
+        if (task != null) task.cancel();
+        // 재시도 분까지 처리
+        for (int i = 0; i <= maxRetries && !queue.isEmpty(); i++) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.github.maharong.randombox.util;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메모리에만 잔액을 보관하는 테스트용 {@link Economy} 구현입니다.
+ * config.yml의 {@code economy.provider: memory}로 Vault 없이 MONEY 보상 흐름을 확인할 때 사용합니다.
+ * {@code economy.memory-failing: true}이면 {@link #setFailing(boolean)}으로 모든 입금을 실패시켜
+ * 재시도와 failed-deposits.yml 보관 동작을 확인할 수 있습니다.
+ */
+@SuppressWarnings("deprecation")
+public class MemoryEconomy implements Economy {
+
+    private final Map<UUID, Double> balances = new ConcurrentHashMap<>();
+    private volatile boolean failing;
+
+    /**
+     * @param failing true이면 모든 입출금이 실패 응답을 반환합니다.
+     */
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    private static UUID id(String playerName) {
+        return Bukkit.getOfflinePlayer(playerName).getUniqueId();
+    }
+
+    private EconomyResponse change(UUID uuid, double amount) {
+        if (failing) {
+            return new EconomyResponse(0, balances.getOrDefault(uuid, 0.0),
+                    EconomyResponse.ResponseType.FAILURE, "MemoryEconomy 실패 모드");
+        }
+        if (amount < 0 && balances.getOrDefault(uuid, 0.0) + amount < 0) {
+            return new EconomyResponse(0, balances.getOrDefault(uuid, 0.0),
+                    EconomyResponse.ResponseType.FAILURE, "잔액 부족");
+        }
+        double balance = balances.merge(uuid, amount, Double::sum);
+        return new EconomyResponse(Math.abs(amount), balance, EconomyResponse.ResponseType.SUCCESS, null);
+    }
+
+    private static EconomyResponse noBank() {
+        return new EconomyResponse(0, 0, EconomyResponse.ResponseType.NOT_IMPLEMENTED, "은행 기능을 지원하지 않습니다.");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "RandomBox-Memory";
+    }
+
+    @Override
+    public boolean hasBankSupport() {
+        return false;
+    }
+
+    @Override
+    public int fractionalDigits() {
+        return 2;
+    }
+
+    @Override
+    public String format(double amount) {
+        return String.format("%.2f", amount);
+    }
+
+    @Override
+    public String currencyNamePlural() {
+        return "원";
+    }
+
+    @Override
+    public String currencyNameSingular() {
+        return "원";
+    }
+
+    @Override
+    public boolean hasAccount(String playerName) {
+        return true;
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return true;
+    }
+
+    @Override
+    public boolean hasAccount(String playerName, String worldName) {
+        return true;
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        return true;
+    }
+
+    @Override
+    public double getBalance(String playerName) {
+        return balances.getOrDefault(id(playerName), 0.0);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        return balances.getOrDefault(player.getUniqueId(), 0.0);
+    }
+
+    @Override
+    public double getBalance(String playerName, String world) {
+        return getBalance(playerName);
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return getBalance(player);
+    }
+
+    @Override
+    public boolean has(String playerName, double amount) {
+        return getBalance(playerName) >= amount;
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return getBalance(player) >= amount;
+    }
+
+    @Override
+    public boolean has(String playerName, String worldName, double amount) {
+        return has(playerName, amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return has(player, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String playerName, double amount) {
+        return change(id(playerName), -amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        return change(player.getUniqueId(), -amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+        return withdrawPlayer(playerName, amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return withdrawPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String playerName, double amount) {
+        return change(id(playerName), amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        return change(player.getUniqueId(), amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+        return depositPlayer(playerName, amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return depositPlayer(player, amount);
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, String player) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, String playerName) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, String playerName) {
+        return noBank();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        return noBank();
+    }
+
+    @Override
+    public List<String> getBanks() {
+        return List.of();
+    }
+
+    @Override
+    public boolean createPlayerAccount(String playerName) {
+        return true;
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        return true;
+    }
+
+    @Override
+    public boolean createPlayerAccount(String playerName, String worldName) {
+        return true;
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        return true;
+    }
+}
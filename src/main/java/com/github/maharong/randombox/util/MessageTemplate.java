@@ -0,0 +1,147 @@
+package com.github.maharong.randombox.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 미리 MiniMessage로 파싱해 둔 메시지 템플릿입니다.
+ * <p>
+ * {@code {key}} 플레이스홀더는 컴파일 시 빈 자리(slot) 컴포넌트로 바뀌며,
+ * 출력 시에는 파싱 없이 해당 자리에 값 컴포넌트만 끼워 넣습니다.
+ * 플레이스홀더가 없는 메시지는 항상 같은 {@link Component} 인스턴스를 반환합니다.
+ */
+public final class MessageTemplate {
+
+    private static final MiniMessage MINI = MiniMessage.miniMessage();
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9_.-]+)}");
+    private static final String SLOT_TAG = "rb_slot";
+    private static final String SLOT_KEY_PREFIX = "randombox.slot.";
+    private static final TagResolver SLOT_RESOLVER = TagResolver.resolver(SLOT_TAG, (args, context) ->
+            Tag.selfClosingInserting(Component.translatable(SLOT_KEY_PREFIX + args.popOr("자리 이름 누락").value())));
+
+    private final Component component;
+    private final boolean hasSlots;
+
+    private MessageTemplate(Component component, boolean hasSlots) {
+        this.component = component;
+        this.hasSlots = hasSlots;
+    }
+
+    /**
+     * MiniMessage 문자열을 템플릿으로 컴파일합니다.
+     *
+     * @param raw {@code {key}} 플레이스홀더를 포함할 수 있는 MiniMessage 문자열
+     * @return 컴파일된 템플릿
+     */
+    public static MessageTemplate compile(String raw) {
+        Matcher matcher = PLACEHOLDER.matcher(raw);
+        StringBuilder converted = new StringBuilder();
+        boolean hasSlots = false;
+        while (matcher.find()) {
+            hasSlots = true;
+            matcher.appendReplacement(converted, Matcher.quoteReplacement("<" + SLOT_TAG + ":" + matcher.group(1) + ">"));
+        }
+        matcher.appendTail(converted);
+
+        Component component = hasSlots ? MINI.deserialize(converted.toString(), SLOT_RESOLVER) : MINI.deserialize(raw);
+        return new MessageTemplate(component, hasSlots);
+    }
+
+    /**
+     * @return 플레이스홀더가 하나라도 있으면 true
+     */
+    public boolean hasSlots() {
+        return hasSlots;
+    }
+
+    /**
+     * 플레이스홀더 값을 채워 컴포넌트를 만듭니다.
+     * 값은 MiniMessage 형식으로 해석되며, 값이 없는 자리는 {@code {key}} 그대로 출력됩니다.
+     *
+     * @param placeholders key → 값 (중괄호 제외)
+     * @return 완성된 컴포넌트
+     */
+    public Component render(Map<String, String> placeholders) {
+        if (!hasSlots) return component;
+        return fill(component, key -> {
+            String value = placeholders.get(key);
+            return value == null ? null : parseValue(value);
+        });
+    }
+
+    /**
+     * {@code "{key}", "값"} 형식의 문자열 쌍으로 플레이스홀더를 채웁니다.
+     *
+     * @param replacements 키-값 문자열 쌍
+     * @return 완성된 컴포넌트
+     */
+    public Component render(String... replacements) {
+        if (!hasSlots) return component;
+        return fill(component, key -> {
+            for (int i = 0; i + 1 < replacements.length; i += 2) {
+                String name = replacements[i];
+                // "{key}" 와 "key" 모두 허용
+                if (name.equals(key) || (name.length() == key.length() + 2 && name.regionMatches(1, key, 0, key.length()))) {
+                    return parseValue(replacements[i + 1]);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 이미 만들어진 컴포넌트로 하나의 플레이스홀더를 채웁니다. 값 파싱이 전혀 일어나지 않습니다.
+     *
+     * @param key 플레이스홀더 이름 (중괄호 제외)
+     * @param value 끼워 넣을 컴포넌트
+     * @return 완성된 컴포넌트
+     */
+    public Component render(String key, Component value) {
+        if (!hasSlots) return component;
+        return fill(component, slot -> slot.equals(key) ? value : null);
+    }
+
+    /**
+     * 태그가 없는 값은 파싱 없이 텍스트 컴포넌트로 만든다
+     */
+    private static Component parseValue(String value) {
+        if (value.indexOf('<') < 0 && value.indexOf('\\') < 0) {
+            return Component.text(value);
+        }
+        return MINI.deserialize(value);
+    }
+
+    private static Component fill(Component node, SlotValues values) {
+        if (node instanceof TranslatableComponent translatable && translatable.key().startsWith(SLOT_KEY_PREFIX)) {
+            String key = translatable.key().substring(SLOT_KEY_PREFIX.length());
+            Component value = values.get(key);
+            return value != null ? value : Component.text("{" + key + "}");
+        }
+
+        List<Component> children = node.children();
+        List<Component> filled = null;
+        for (int i = 0; i < children.size(); i++) {
+            Component child = children.get(i);
+            Component replaced = fill(child, values);
+            if (replaced != child) {
+                if (filled == null) filled = new ArrayList<>(children);
+                filled.set(i, replaced);
+            }
+        }
+        return filled == null ? node : node.children(filled);
+    }
+
+    @FunctionalInterface
+    private interface SlotValues {
+        Component get(String key);
+    }
+}
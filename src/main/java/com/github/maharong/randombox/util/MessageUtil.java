@@ -11,18 +11,27 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MessageUtil {
 
     private static final MiniMessage MINI = MiniMessage.miniMessage();
+    private static final String MISSING_MESSAGE = "<red>[오류] 메시지를 찾을 수 없습니다.";
     private static FileConfiguration messages;
 
     private static final Map<String, String> prefixMap = new HashMap<>();
     private static final Map<String, Set<String>> prefixSkipMap = new HashMap<>();
 
+    // 경로별로 미리 컴파일된 메시지 템플릿 (접두어 포함)
+    private static volatile Map<String, MessageTemplate> catalog = Map.of();
+    private static final Map<String, MessageTemplate> missingCatalog = new ConcurrentHashMap<>();
+
     // 메시지 파일 로드
     public static void load(FileConfiguration config) {
         messages = config;
+        prefixMap.clear();
+        prefixSkipMap.clear();
+
         // prefix 항목 로딩
         if (config.isConfigurationSection("prefix")) {
             for (String key : Objects.requireNonNull(config.getConfigurationSection("prefix")).getKeys(false)) {
@@ -30,35 +39,61 @@ public class MessageUtil {
             }
         }
 
-        // prefix-skip 항목 로딩
+        // prefix-skip 항목 로딩 (카테고리별 섹션 또는 전체 경로 리스트)
         if (config.isConfigurationSection("prefix-skip")) {
             for (String key : Objects.requireNonNull(config.getConfigurationSection("prefix-skip")).getKeys(false)) {
                 List<String> list = config.getStringList("prefix-skip." + key);
                 prefixSkipMap.put(key, new HashSet<>(list));
             }
+        } else if (config.isList("prefix-skip")) {
+            for (String path : config.getStringList("prefix-skip")) {
+                int dot = path.indexOf('.');
+                if (dot < 0) continue;
+                prefixSkipMap.computeIfAbsent(path.substring(0, dot), k -> new HashSet<>()).add(path);
+            }
         }
-    }
 
-    // 메시지 Component 반환 (플레이스홀더 O)
-    public static Component get(String path, Map<String, String> placeholders) {
-        String raw = messages.getString(path);
-        if (raw == null) {
-            raw = "<red>[오류] 메시지를 찾을 수 없습니다.";
+        // 모든 메시지를 접두어까지 붙여 미리 컴파일
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+        for (String path : config.getKeys(true)) {
+            if (!config.isString(path)) continue;
+            compiled.put(path, compile(path, config.getString(path)));
         }
+        catalog = compiled;
+        missingCatalog.clear();
+    }
+
+    private static MessageTemplate compile(String path, String raw) {
         // 접두어 처리
         String prefix = getPrefix(path);
         if (prefix != null) {
             raw = prefix + " " + raw;
         }
+        return MessageTemplate.compile(raw);
+    }
 
-        for (String key : placeholders.keySet()) {
-            raw = raw.replace("{" + key + "}", "<" + key + ">");
+    private static MessageTemplate template(String path) {
+        MessageTemplate template = catalog.get(path);
+        if (template == null) {
+            template = missingCatalog.computeIfAbsent(path, key -> compile(key, MISSING_MESSAGE));
         }
-        TagResolver.Builder resolver = TagResolver.builder();
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            resolver.resolver(Placeholder.parsed(entry.getKey(), entry.getValue()));
-        }
-        return MINI.deserialize(raw, resolver.build());
+        return template;
+    }
+
+    // 메시지 Component 반환 (플레이스홀더 O)
+    public static Component get(String path, Map<String, String> placeholders) {
+        return template(path).render(placeholders);
+    }
+
+    /**
+     * 접두어 카테고리(prefix 섹션의 키)에 해당하는 미리 파싱된 접두어를 반환합니다.
+     *
+     * @param category 접두어 카테고리 (예: box)
+     * @return 접두어 컴포넌트 (없으면 빈 컴포넌트)
+     */
+    public static Component prefix(String category) {
+        MessageTemplate template = catalog.get("prefix." + category);
+        return template == null ? Component.empty() : template.render();
     }
 
     // 메시지 Component 반환 (플레이스홀더 X)
@@ -93,12 +128,7 @@ public class MessageUtil {
             throw new IllegalArgumentException("짝수 개의 플레이스홀더 키-값이 필요합니다.");
         }
 
-        Map<String, String> placeholders = new HashMap<>();
-        for (int i = 0; i < replacements.length; i += 2) {
-            placeholders.put(replacements[i].replace("{", "").replace("}", ""), replacements[i + 1]);
-        }
-
-        send(sender, path, placeholders);
+        sender.sendMessage(template(path).render(replacements));
     }
 
     // 메시지 전송 (플레이스홀더 O)
@@ -160,8 +190,7 @@ public class MessageUtil {
         if (!file.exists()) {
             RandomBox.getInstance().saveResource("message.yml", false);
         }
-        messages = YamlConfiguration.loadConfiguration(file);
         FileConfiguration config = YamlConfiguration.loadConfiguration(file);
-        load(config); // prefixMap, prefixSkipMap도 재로딩됨
+        load(config); // prefixMap, prefixSkipMap, 메시지 템플릿도 재로딩됨
     }
 }
\ No newline at end of file
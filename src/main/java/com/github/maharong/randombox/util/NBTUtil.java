@@ -4,17 +4,64 @@ import com.github.maharong.randombox.RandomBox;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 
+/**
+ * 박스 티켓 아이템의 PDC 정보를 읽고 씁니다.
+ * <p>
+ * 티켓은 {@code ticket} 키에 [박스 인덱스, 설정 세대, 일련번호] 정수 배열로 기록됩니다.
+ * 이전 버전에서 만들어진 티켓은 {@code box-id} 키에 박스 ID 문자열을 가지고 있으며, 읽기만 지원합니다.
+ */
 public class NBTUtil {
     private static final NamespacedKey BOX_ID_KEY = new NamespacedKey(RandomBox.getInstance(), "box-id");
+    private static final NamespacedKey TICKET_KEY = new NamespacedKey(RandomBox.getInstance(), "ticket");
+
+    /** 티켓 배열의 박스 인덱스 위치 */
+    public static final int TICKET_INDEX = 0;
+    /** 티켓 배열의 설정 세대 위치 */
+    public static final int TICKET_GENERATION = 1;
+    /** 티켓 배열의 일련번호 위치 (0이면 번호 없음) */
+    public static final int TICKET_SERIAL = 2;
 
     public static String getBoxId(ItemStack item) {
         if (item == null || !item.hasItemMeta()) return null;
-        ItemMeta meta = item.getItemMeta();
-        if (!meta.getPersistentDataContainer().has(BOX_ID_KEY, PersistentDataType.STRING)) return null;
+        return getBoxId(item.getItemMeta());
+    }
+
+    // get은 값이 없으면 null을 반환하므로 has 조회를 생략한다
+    public static String getBoxId(ItemMeta meta) {
         return meta.getPersistentDataContainer().get(BOX_ID_KEY, PersistentDataType.STRING);
     }
+
+    /**
+     * 티켓 정보를 읽습니다.
+     *
+     * @param meta 아이템 메타
+     * @return [박스 인덱스, 설정 세대, 일련번호] 배열, 새 형식의 티켓이 아니면 null
+     */
+    public static int[] getTicket(ItemMeta meta) {
+        int[] ticket = meta.getPersistentDataContainer().get(TICKET_KEY, PersistentDataType.INTEGER_ARRAY);
+        return ticket == null || ticket.length <= TICKET_SERIAL ? null : ticket;
+    }
+
+    /**
+     * 티켓 정보를 기록합니다. 이전 형식의 박스 ID는 제거됩니다.
+     *
+     * @param item 티켓 아이템
+     * @param index 박스 인덱스
+     * @param generation 박스 설정 세대
+     * @param serial 일련번호 (없으면 0)
+     */
+    public static void setTicket(ItemStack item, int index, int generation, int serial) {
+        if (item == null || !item.hasItemMeta()) return;
+        ItemMeta meta = item.getItemMeta();
+        PersistentDataContainer container = meta.getPersistentDataContainer();
+        container.set(TICKET_KEY, PersistentDataType.INTEGER_ARRAY, new int[]{index, generation, serial});
+        container.remove(BOX_ID_KEY);
+        item.setItemMeta(meta);
+    }
+
     public static void setBoxId(ItemStack item, String boxId) {
         if (item == null || !item.hasItemMeta()) return;
         ItemMeta meta = item.getItemMeta();
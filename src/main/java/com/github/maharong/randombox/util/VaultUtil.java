@@ -2,23 +2,45 @@ package com.github.maharong.randombox.util;
 
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
+import java.util.UUID;
+
 public class VaultUtil {
     private static Economy econ;
+    private static EconomyPipeline pipeline;
 
     public static void setup(Plugin plugin) {
-        if (!Bukkit.getPluginManager().isPluginEnabled("Vault")) {
-            plugin.getLogger().warning("Vault가 설치되어 있지 않아 MONEY 보상이 비활성화됩니다.");
-            return;
-        }
-        RegisteredServiceProvider<Economy> rsp = Bukkit.getServicesManager().getRegistration(Economy.class);
-        if (rsp != null) {
-            econ = rsp.getProvider();
+        FileConfiguration config = plugin.getConfig();
+
+        // 테스트용 메모리 경제
+        if (config.getString("economy.provider", "vault").equalsIgnoreCase("memory")) {
+            MemoryEconomy memory = new MemoryEconomy();
+            // 입금 실패를 흉내 내어 재시도와 실패 보관 동작을 확인
+            memory.setFailing(config.getBoolean("economy.memory-failing", false));
+            econ = memory;
+            plugin.getLogger().warning("테스트용 메모리 경제를 사용합니다. 실제 잔액에는 반영되지 않습니다.");
         } else {
-            plugin.getLogger().warning("Vault 경제 시스템 초기화 실패: Economy provider 없음.");
+            if (!Bukkit.getPluginManager().isPluginEnabled("Vault")) {
+                plugin.getLogger().warning("Vault가 설치되어 있지 않아 MONEY 보상이 비활성화됩니다.");
+                return;
+            }
+            RegisteredServiceProvider<Economy> rsp = Bukkit.getServicesManager().getRegistration(Economy.class);
+            if (rsp != null) {
+                econ = rsp.getProvider();
+            } else {
+                plugin.getLogger().warning("Vault 경제 시스템 초기화 실패: Economy provider 없음.");
+                return;
+            }
+        }
+
+        // 비동기 입금 파이프라인
+        if (config.getBoolean("economy.async", true)) {
+            pipeline = new EconomyPipeline(plugin, econ, config.getInt("economy.max-retries", 3));
+            pipeline.start(Math.max(1L, config.getLong("economy.flush-ticks", 20L)));
         }
     }
 
@@ -28,6 +50,42 @@ public class VaultUtil {
 
     public static void give(Player player, double amount) {
         if (!isEnabled()) return;
+        if (pipeline != null) {
+            pipeline.deposit(player.getUniqueId(), amount);
+            return;
+        }
         econ.depositPlayer(player, amount);
     }
+
+    /**
+     * 접속하지 않은 플레이어에게 입금합니다.
+     *
+     * @param uuid 대상 플레이어 UUID
+     * @param amount 금액
+     */
+    public static void give(UUID uuid, double amount) {
+        if (!isEnabled()) return;
+        if (pipeline != null) {
+            pipeline.deposit(uuid, amount);
+            return;
+        }
+        econ.depositPlayer(Bukkit.getOfflinePlayer(uuid), amount);
+    }
+
+    /**
+     * @return 처리 대기 중인 입금 요청 수 (비동기 파이프라인 미사용 시 0)
+     */
+    public static int pendingDeposits() {
+        return pipeline == null ? 0 : pipeline.size();
+    }
+
+    /**
+     * 남은 입금을 모두 처리합니다. 플러그인 비활성화 시 호출됩니다.
+     */
+    public static void shutdown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+            pipeline = null;
+        }
+    }
 }
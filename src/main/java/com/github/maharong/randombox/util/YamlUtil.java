@@ -29,8 +29,8 @@ public class YamlUtil {
                 try {
                     result.add(RewardGroup.fromMap((Map<String, Object>) map));
                 } catch (Exception e) {
-                    Bukkit.getLogger().severe("[RandomBox] RewardGroup 파싱 중 오류 발생: " + e.getMessage());
-                    Bukkit.getLogger().severe("문제 객체: " + map);
+                    // 잘못된 그룹을 건너뛰면 확률 합이 달라지므로 박스 로딩 자체를 실패시킨다
+                    throw new IllegalArgumentException("RewardGroup 파싱 중 오류 발생: " + e.getMessage() + " (문제 객체: " + map + ")", e);
                 }
             } else {
                 Bukkit.getLogger().warning("[RandomBox] 예상치 못한 객체 타입: " + obj.getClass().getName());
@@ -46,8 +46,7 @@ public class YamlUtil {
             try {
                 rewards.add(RewardDeserializer.fromMap(map));
             } catch (Exception e) {
-                Bukkit.getLogger().severe("[RandomBox] Reward default 파싱 중 오류 발생: " + e.getMessage());
-                Bukkit.getLogger().severe("문제 객체: " + map);
+                throw new IllegalArgumentException("Reward default 파싱 중 오류 발생: " + e.getMessage() + " (문제 객체: " + map + ")", e);
             }
         }
         return rewards;